@@ -0,0 +1,46 @@
+#!/usr/bin/env bash
+# Compares rows/sec of GET /patients, GET /patients/stream and GET /patients/export
+# against a running patient-service, plain and gzipped.
+#
+#   benchmarks/export/export-throughput.sh [RUNS] [URL]
+#
+# RUNS  downloads per variant (default 3); the first one warms up and is not counted
+# URL   base URL of the service (default http://localhost:4000)
+#
+# For the 10M-row comparison, point the service at a Postgres database filled with
+#   psql -d bench -v rows=10000000 -f benchmarks/sql/seed-patients.sql
+# GET /patients builds the whole list in memory, so give that run a large enough heap.
+set -euo pipefail
+
+RUNS="${1:-3}"
+URL="${2:-http://localhost:4000}"
+
+ROWS=$(curl -sf "$URL/patients/export" -H 'Accept: text/csv' | tail -n +2 | wc -l)
+echo "patients: $ROWS"
+printf '%-16s %10s %14s %12s\n' variant seconds rows/sec MB
+
+measure() {
+    local name="$1"; shift
+    local times=""
+    local size=0 result
+    for run in $(seq 0 "$RUNS"); do
+        result=$(curl -sf -o /dev/null -w '%{time_total} %{size_download}' "$@")
+        if [ "$run" -gt 0 ]; then
+            times="$times ${result% *}"
+            size=${result#* }
+        fi
+    done
+    echo "$times" | awk -v name="$name" -v rows="$ROWS" -v size="$size" '{
+        for (i = 1; i <= NF; i++) total += $i
+        seconds = total / NF
+        printf "%-16s %10.3f %14.0f %12.1f\n", name, seconds, rows / seconds, size / 1048576
+    }'
+}
+
+measure list-json       "$URL/patients" -H 'Accept: application/json'
+measure list-json-gzip  "$URL/patients" -H 'Accept: application/json' -H 'Accept-Encoding: gzip'
+measure stream-ndjson   "$URL/patients/stream" -H 'Accept: application/x-ndjson'
+measure export-csv      "$URL/patients/export" -H 'Accept: text/csv'
+measure export-csv-gzip "$URL/patients/export" -H 'Accept: text/csv' -H 'Accept-Encoding: gzip'
+measure export-bin      "$URL/patients/export" -H 'Accept: application/octet-stream'
+measure export-bin-gzip "$URL/patients/export" -H 'Accept: application/octet-stream' -H 'Accept-Encoding: gzip'
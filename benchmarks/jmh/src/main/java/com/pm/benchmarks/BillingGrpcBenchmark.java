@@ -0,0 +1,155 @@
+package com.pm.benchmarks;
+
+import billing.BillingBatchSummary;
+import billing.BillingRequest;
+import billing.BillingResponse;
+import billing.BillingServiceGrpc;
+import com.pm.billingservice.account.BillingAccountStore;
+import com.pm.billingservice.grpc.BillingGrpcService;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Provisioning BATCH billing accounts with each of the three BillingService RPCs:
+ * one unary call per patient, one client stream, and one bidirectional stream.
+ * Runs over the in-process transport, so the numbers show per-call overhead in gRPC
+ * and the service, not network latency. Results are per account (ops = accounts).
+ *
+ * Patient IDs cycle through a fixed set so the account store stays the same size;
+ * after warm-up every call takes the existing-account path.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BillingGrpcBenchmark {
+
+    private static final int BATCH = 100;
+    private static final int DISTINCT_PATIENTS = 10_000;
+
+    private Server server;
+    private ManagedChannel channel;
+    private BillingServiceGrpc.BillingServiceBlockingStub blockingStub;
+    private BillingServiceGrpc.BillingServiceStub asyncStub;
+    private BillingRequest[] requests;
+    private int next;
+
+    @Setup
+    public void setUp() throws Exception {
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name)
+                .addService(new BillingGrpcService(new BillingAccountStore("")))
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(name).build();
+        blockingStub = BillingServiceGrpc.newBlockingStub(channel);
+        asyncStub = BillingServiceGrpc.newStub(channel);
+
+        requests = new BillingRequest[DISTINCT_PATIENTS];
+        for (int i = 0; i < DISTINCT_PATIENTS; i++) {
+            requests[i] = BillingRequest.newBuilder()
+                    .setPatientId("patient-" + i)
+                    .setName("Patient " + i)
+                    .setEmail("patient" + i + "@example.com")
+                    .build();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private BillingRequest nextRequest() {
+        BillingRequest request = requests[next];
+        next = (next + 1) % DISTINCT_PATIENTS;
+        return request;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public BillingResponse unary() {
+        BillingResponse last = null;
+        for (int i = 0; i < BATCH; i++) {
+            last = blockingStub.createBillingAccount(nextRequest());
+        }
+        return last;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public BillingBatchSummary clientStreaming() throws Exception {
+        CompletableFuture<BillingBatchSummary> summary = new CompletableFuture<>();
+        StreamObserver<BillingRequest> stream = asyncStub.createBillingAccounts(new StreamObserver<>() {
+            @Override
+            public void onNext(BillingBatchSummary value) {
+                summary.complete(value);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                summary.completeExceptionally(t);
+            }
+
+            @Override
+            public void onCompleted() {
+            }
+        });
+        for (int i = 0; i < BATCH; i++) {
+            stream.onNext(nextRequest());
+        }
+        stream.onCompleted();
+        return summary.get(10, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public long bidiStreaming() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        long[] received = new long[1];
+        StreamObserver<BillingRequest> stream = asyncStub.streamBillingAccounts(new StreamObserver<>() {
+            @Override
+            public void onNext(BillingResponse value) {
+                received[0]++;
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                done.countDown();
+            }
+
+            @Override
+            public void onCompleted() {
+                done.countDown();
+            }
+        });
+        for (int i = 0; i < BATCH; i++) {
+            stream.onNext(nextRequest());
+        }
+        stream.onCompleted();
+        done.await(10, TimeUnit.SECONDS);
+        return received[0];
+    }
+}
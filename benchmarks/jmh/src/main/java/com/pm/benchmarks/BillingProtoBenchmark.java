@@ -0,0 +1,70 @@
+package com.pm.benchmarks;
+
+import billing.BillingRequest;
+import billing.BillingResponse;
+import com.google.protobuf.InvalidProtocolBufferException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Protobuf encoding and decoding of the billing messages exchanged for every patient.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BillingProtoBenchmark {
+
+    private BillingRequest request;
+    private BillingResponse response;
+    private byte[] requestBytes;
+    private byte[] responseBytes;
+
+    @Setup
+    public void setUp() {
+        request = BillingRequest.newBuilder()
+                .setPatientId("0190f5a2-7c3e-7a11-8b2c-1d2e3f405162")
+                .setName("Patient 42")
+                .setEmail("patient42@example.com")
+                .build();
+        response = BillingResponse.newBuilder()
+                .setAccountId("BA-42")
+                .setStatus("ACTIVE")
+                .setPatientId(request.getPatientId())
+                .build();
+        requestBytes = request.toByteArray();
+        responseBytes = response.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] encodeRequest() {
+        return request.toByteArray();
+    }
+
+    @Benchmark
+    public BillingRequest decodeRequest() throws InvalidProtocolBufferException {
+        return BillingRequest.parseFrom(requestBytes);
+    }
+
+    @Benchmark
+    public byte[] encodeResponse() {
+        return response.toByteArray();
+    }
+
+    @Benchmark
+    public BillingResponse decodeResponse() throws InvalidProtocolBufferException {
+        return BillingResponse.parseFrom(responseBytes);
+    }
+}
@@ -0,0 +1,79 @@
+package com.pm.benchmarks;
+
+import com.pm.patientservice.service.BloomFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The registered-email Bloom filter at 10M emails and 1% target false-positive rate.
+ * Setup fills the filter and logs its memory use and the false-positive rate measured
+ * over 1M emails that were never added; the benchmarks time a lookup of a registered
+ * and of a new email.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+@State(Scope.Benchmark)
+public class EmailFilterBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailFilterBenchmark.class);
+
+    private static final int EMAILS = 10_000_000;
+    private static final int PROBES = 1_000_000;
+
+    private BloomFilter filter;
+    private String[] registered;
+    private String[] unknown;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        filter = new BloomFilter(EMAILS, 0.01);
+        for (int i = 0; i < EMAILS; i++) {
+            filter.add("patient" + i + "@example.com");
+        }
+
+        registered = new String[1024];
+        unknown = new String[1024];
+        for (int i = 0; i < registered.length; i++) {
+            registered[i] = "patient" + (i * 9_767) + "@example.com";
+            unknown[i] = "new" + i + "@example.org";
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < PROBES; i++) {
+            if (filter.mightContain("new" + i + "@example.org")) {
+                falsePositives++;
+            }
+        }
+        log.info(String.format("%d emails: %.1f MB, %d hash functions, false positives %.3f%% measured, %.3f%% expected",
+                EMAILS, filter.memoryBytes() / 1e6, filter.hashCount(),
+                100.0 * falsePositives / PROBES, 100 * filter.expectedFalsePositiveRate()));
+    }
+
+    @Benchmark
+    public boolean registeredEmail() {
+        next = (next + 1) & 1023;
+        return filter.mightContain(registered[next]);
+    }
+
+    @Benchmark
+    public boolean newEmail() {
+        next = (next + 1) & 1023;
+        return filter.mightContain(unknown[next]);
+    }
+}
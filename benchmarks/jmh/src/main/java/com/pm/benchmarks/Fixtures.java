@@ -0,0 +1,53 @@
+package com.pm.benchmarks;
+
+import com.pm.patientservice.dto.PatientRequestDTO;
+import com.pm.patientservice.dto.PatientResponseDTO;
+import com.pm.patientservice.dto.PatientSummaryDTO;
+import com.pm.patientservice.mapper.PatientMapper;
+import com.pm.patientservice.model.Patient;
+import com.pm.patientservice.model.UuidV7Generator;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Deterministic sample data shared by the benchmarks.
+ */
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    static PatientRequestDTO request(int i) {
+        PatientRequestDTO request = new PatientRequestDTO();
+        request.setName("Patient " + i);
+        request.setEmail("patient" + i + "@example.com");
+        request.setAddress(i + " Main St, Springfield");
+        request.setDateOfBirth(LocalDate.of(1950, 1, 1).plusDays(i % 20_000).toString());
+        request.setRegisteredDate(LocalDate.of(2020, 1, 1).plusDays(i % 1_500).toString());
+        return request;
+    }
+
+    static Patient patient(int i) {
+        Patient patient = patientWithoutId(i);
+        patient.setId(UuidV7Generator.next());
+        return patient;
+    }
+
+    static Patient patientWithoutId(int i) {
+        return PatientMapper.toModel(request(i));
+    }
+
+    static List<PatientResponseDTO> responses(int count) {
+        return IntStream.range(0, count).mapToObj(i -> PatientMapper.toDTO(patient(i))).toList();
+    }
+
+    static List<PatientSummaryDTO> summaries(int count) {
+        return IntStream.range(0, count).mapToObj(i -> {
+            Patient patient = patient(i);
+            return new PatientSummaryDTO(patient.getId(), patient.getName(), patient.getEmail(),
+                    patient.getAddress(), patient.getDateOfBirth());
+        }).toList();
+    }
+}
@@ -0,0 +1,92 @@
+package com.pm.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.pm.patientservice.dto.PatientResponseDTO;
+import com.pm.patientservice.dto.PatientSummaryDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of patient lists the size of GET /patients responses.
+ *
+ * serializeResponses: PatientResponseDTO, reflective binding of pre-stringified fields.
+ * serializeSummaries: PatientSummaryDTO through PatientSummaryJsonSerializer (what GET /patients uses).
+ * serializeSummariesDefaultBinding: the same records through Jackson's default record binding.
+ * All three produce the same bytes.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PatientJsonBenchmark {
+
+    @Param({"100", "10000"})
+    private int patients;
+
+    private List<PatientResponseDTO> responses;
+    private List<PatientSummaryDTO> summaries;
+    private ObjectWriter responseWriter;
+    private ObjectWriter summaryWriter;
+    private ObjectWriter defaultSummaryWriter;
+
+    @Setup
+    public void setUp() {
+        responses = Fixtures.responses(patients);
+        summaries = Fixtures.summaries(patients);
+
+        // Same ObjectMapper settings as Spring MVC; list types resolved up front
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        ObjectMapper defaultBinding = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .mixIn(PatientSummaryDTO.class, DefaultBinding.class)
+                .build();
+
+        responseWriter = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, PatientResponseDTO.class));
+        summaryWriter = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, PatientSummaryDTO.class));
+        defaultSummaryWriter = defaultBinding.writerFor(defaultBinding.getTypeFactory()
+                .constructCollectionType(List.class, PatientSummaryDTO.class));
+    }
+
+    @Benchmark
+    public byte[] serializeResponses() throws JsonProcessingException {
+        return responseWriter.writeValueAsBytes(responses);
+    }
+
+    @Benchmark
+    public byte[] serializeSummaries() throws JsonProcessingException {
+        return summaryWriter.writeValueAsBytes(summaries);
+    }
+
+    @Benchmark
+    public byte[] serializeSummariesDefaultBinding() throws JsonProcessingException {
+        return defaultSummaryWriter.writeValueAsBytes(summaries);
+    }
+
+    @JsonSerialize(using = JsonSerializer.None.class)
+    private interface DefaultBinding {
+    }
+}
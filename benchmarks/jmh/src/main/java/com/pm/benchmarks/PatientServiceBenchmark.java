@@ -0,0 +1,116 @@
+package com.pm.benchmarks;
+
+import com.pm.patientservice.PatientServiceApplication;
+import com.pm.patientservice.dto.PatientPageResponseDTO;
+import com.pm.patientservice.dto.PatientResponseDTO;
+import com.pm.patientservice.dto.PatientSummaryDTO;
+import com.pm.patientservice.mapper.PatientMapper;
+import com.pm.patientservice.model.Patient;
+import com.pm.patientservice.repository.PatientRepository;
+import com.pm.patientservice.service.PatientService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * PatientService end to end against the embedded H2 database: repository, Hibernate,
+ * mapping and caching, without HTTP. The application context is started once per fork
+ * and seeded with PATIENTS rows.
+ *
+ * getPatients (constructor-expression projection) and getPatientsThroughMapper (entities
+ * plus PatientMapper) read the same rows, to compare the two ways of building a listing.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PatientServiceBenchmark {
+
+    private static final int PATIENTS = 2_000;
+
+    private ConfigurableApplicationContext context;
+    private PatientService patientService;
+    private PatientRepository patientRepository;
+    private TransactionTemplate readOnly;
+    private UUID knownId;
+
+    // New emails for createPatient; continues after the seeded ones
+    private final AtomicInteger nextPatient = new AtomicInteger(PATIENTS);
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(PatientServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                // Passed as arguments so they override application.properties
+                .run("--spring.main.banner-mode=off",
+                        "--logging.level.root=warn",
+                        // Nothing downstream: events stay in the outbox table
+                        "--outbox.relay.enabled=false");
+
+        patientService = context.getBean(PatientService.class);
+        patientRepository = context.getBean(PatientRepository.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        List<Patient> seeded = patientRepository.saveAll(
+                IntStream.range(0, PATIENTS).mapToObj(Fixtures::patientWithoutId).toList());
+        knownId = seeded.get(PATIENTS / 2).getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public PatientResponseDTO getPatientCached() {
+        return patientService.getPatient(knownId);
+    }
+
+    @Benchmark
+    public List<PatientSummaryDTO> getPatients() {
+        return patientService.getPatients();
+    }
+
+    @Benchmark
+    public List<PatientResponseDTO> getPatientsThroughMapper() {
+        return readOnly.execute(status ->
+                patientRepository.findAll().stream().map(PatientMapper::toDTO).toList());
+    }
+
+    @Benchmark
+    public PatientPageResponseDTO getPatientPage() {
+        return patientService.getPatientPage(null, 50);
+    }
+
+    @Benchmark
+    public List<PatientResponseDTO> searchPatients() {
+        return patientService.searchPatients("Patient 1", null, null, null, null, 20);
+    }
+
+    @Benchmark
+    public PatientResponseDTO createPatient() {
+        return patientService.createPatient(Fixtures.request(nextPatient.getAndIncrement()));
+    }
+}
@@ -0,0 +1,92 @@
+package com.pm.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.type.CollectionType;
+import com.pm.patientservice.dto.PatientResponseDTO;
+import com.pm.patientservice.dto.PatientSummaryDTO;
+import com.pm.patientservice.mapper.PatientProtoMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import patient.PatientList;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /patients as JSON against application/x-protobuf: encoding on the server side and
+ * decoding on the consumer side. JSON is decoded into PatientResponseDTOs, the way a Java
+ * consumer binds it. Payload sizes are logged once at setup.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PatientWireFormatBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(PatientWireFormatBenchmark.class);
+
+    @Param({"100", "10000"})
+    private int patients;
+
+    private List<PatientSummaryDTO> summaries;
+    private ObjectWriter jsonWriter;
+    private ObjectReader jsonReader;
+    private byte[] json;
+    private byte[] protobuf;
+
+    @Setup
+    public void setUp() throws IOException {
+        summaries = Fixtures.summaries(patients);
+
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        jsonWriter = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, PatientSummaryDTO.class));
+        CollectionType responseList = objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, PatientResponseDTO.class);
+        jsonReader = objectMapper.readerFor(responseList);
+
+        json = encodeJson();
+        protobuf = encodeProtobuf();
+        log.info("{} patients: JSON {} bytes, protobuf {} bytes", patients, json.length, protobuf.length);
+    }
+
+    @Benchmark
+    public byte[] encodeJson() throws IOException {
+        return jsonWriter.writeValueAsBytes(summaries);
+    }
+
+    @Benchmark
+    public byte[] encodeProtobuf() {
+        return PatientProtoMapper.toProto(summaries).toByteArray();
+    }
+
+    @Benchmark
+    public List<PatientResponseDTO> decodeJson() throws IOException {
+        return jsonReader.readValue(json);
+    }
+
+    @Benchmark
+    public PatientList decodeProtobuf() throws IOException {
+        return PatientList.parseFrom(protobuf);
+    }
+}
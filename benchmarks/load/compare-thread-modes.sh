@@ -0,0 +1,34 @@
+#!/usr/bin/env bash
+# Runs the mixed k6 workload against patient-service twice, once on the default Tomcat
+# platform-thread pool and once with the virtual-threads profile, and keeps both summaries.
+#
+#   benchmarks/load/compare-thread-modes.sh [VUS]
+#
+# Needs k6 on the PATH. Datasource settings are taken from the environment
+# (SPRING_DATASOURCE_URL etc.), so point it at the same Postgres for both runs.
+set -euo pipefail
+
+VUS="${1:-200}"
+ROOT="$(cd "$(dirname "$0")/../.." && pwd)"
+JAR="$ROOT/patient-service/target/patient-service-0.0.1-SNAPSHOT.jar"
+OUT="$ROOT/benchmarks/load/results"
+mkdir -p "$OUT"
+
+(cd "$ROOT/patient-service" && ./mvnw -q -B package -DskipTests)
+
+run_mode() {
+    local mode="$1" profiles="$2"
+    java -jar "$JAR" --spring.profiles.active="$profiles" > "$OUT/$mode.log" 2>&1 &
+    local pid=$!
+    trap 'kill $pid 2>/dev/null || true' RETURN
+
+    until curl -sf http://localhost:4000/patients?limit=1 > /dev/null; do sleep 1; done
+
+    k6 run -q -e VUS="$VUS" --summary-export "$OUT/$mode.json" \
+        "$ROOT/benchmarks/load/patient-mixed.js" | tee "$OUT/$mode.txt"
+}
+
+run_mode platform default
+run_mode virtual virtual-threads
+
+echo "Summaries written to $OUT/{platform,virtual}.json"
@@ -0,0 +1,72 @@
+// Mixed admission-desk workload for patient-service, built from the requests in
+// api-requests/patient-service: list, single lookup, create and update.
+//
+//   k6 run -e BASE_URL=http://localhost:4000 -e VUS=200 benchmarks/load/patient-mixed.js
+//
+// Bursts ramp from 0 to VUS and back twice, so queueing behind blocked threads shows up
+// in the tail latencies (p95/p99 are printed in the summary).
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:4000';
+const VUS = parseInt(__ENV.VUS || '200');
+const JSON_HEADERS = { headers: { 'Content-Type': 'application/json' } };
+
+// Seeded in data.sql
+const KNOWN_ID = '123e4567-e89b-12d3-a456-426614174000';
+
+export const options = {
+    scenarios: {
+        bursts: {
+            executor: 'ramping-vus',
+            stages: [
+                { duration: '10s', target: VUS },
+                { duration: '30s', target: VUS },
+                { duration: '5s', target: 0 },
+                { duration: '10s', target: VUS },
+                { duration: '30s', target: VUS },
+                { duration: '5s', target: 0 },
+            ],
+        },
+    },
+    summaryTrendStats: ['avg', 'med', 'p(95)', 'p(99)', 'max'],
+};
+
+export function setup() {
+    // Make sure the well-known patient exists even when data.sql did not run
+    const res = http.get(`${BASE_URL}/patients/${KNOWN_ID}`);
+    return { patientId: res.status === 200 ? KNOWN_ID : createPatient('setup').json('id') };
+}
+
+function createPatient(tag) {
+    return http.post(`${BASE_URL}/patients`, JSON.stringify({
+        name: `Load ${tag}`,
+        email: `load.${tag}.${Date.now()}.${Math.random().toString(36).slice(2)}@test.com`,
+        address: '123 main street',
+        dateOfBirth: '2001-10-14',
+        registeredDate: '2024-05-09',
+    }), JSON_HEADERS);
+}
+
+export default function (data) {
+    const roll = Math.random();
+
+    if (roll < 0.5) {
+        const res = http.get(`${BASE_URL}/patients/${data.patientId}`, { tags: { name: 'get-patient' } });
+        check(res, { 'get 200': (r) => r.status === 200 });
+    } else if (roll < 0.8) {
+        const res = http.get(`${BASE_URL}/patients?limit=50`, { tags: { name: 'get-patients-page' } });
+        check(res, { 'page 200': (r) => r.status === 200 });
+    } else if (roll < 0.95) {
+        const res = createPatient(`vu${__VU}`);
+        check(res, { 'create 200': (r) => r.status === 200 });
+    } else {
+        const res = http.put(`${BASE_URL}/patients/${data.patientId}`, JSON.stringify({
+            name: 'John Doe',
+            email: 'john.doe@example.com',
+            address: '123 Main St, Springfield',
+            dateOfBirth: '1985-06-15',
+        }), Object.assign({ tags: { name: 'update-patient' } }, JSON_HEADERS));
+        check(res, { 'update 200': (r) => r.status === 200 });
+    }
+}
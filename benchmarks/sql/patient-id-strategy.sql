@@ -0,0 +1,72 @@
+-- Compares insert time and primary-key index size for the two Patient ID strategies:
+-- random UUIDv4 (the previous GenerationType.AUTO default) and time-ordered UUIDv7
+-- (UuidV7Generator). Rows are inserted in batches of 500, like the bulk import does.
+--
+-- Run against a scratch Postgres database, once per table size:
+--   psql -d bench -v rows=1000000  -f patient-id-strategy.sql
+--   psql -d bench -v rows=10000000 -f patient-id-strategy.sql
+
+\if :{?rows}
+\else
+\set rows 1000000
+\endif
+
+\timing on
+
+-- Same layout as UuidV7Generator: 48-bit Unix millis, version 7, random remainder
+CREATE OR REPLACE FUNCTION bench_uuid_v7() RETURNS uuid AS
+$$
+SELECT encode(
+               set_bit(
+                       set_bit(
+                               overlay(uuid_send(gen_random_uuid())
+                                       placing substring(int8send(floor(extract(epoch FROM clock_timestamp()) * 1000)::bigint) FROM 3)
+                                       FROM 1 FOR 6),
+                               52, 1),
+                       53, 1),
+               'hex')::uuid;
+$$ LANGUAGE sql VOLATILE;
+
+DROP TABLE IF EXISTS bench_patient_v4;
+DROP TABLE IF EXISTS bench_patient_v7;
+CREATE TABLE bench_patient_v4 (LIKE patient INCLUDING ALL);
+CREATE TABLE bench_patient_v7 (LIKE patient INCLUDING ALL);
+
+-- Inserts :rows patients in batches of 500 using the given ID expression
+CREATE OR REPLACE PROCEDURE bench_fill(target regclass, id_expr text, total bigint)
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    batch_start bigint := 0;
+BEGIN
+    WHILE batch_start < total
+        LOOP
+            EXECUTE format(
+                    'INSERT INTO %s (id, name, email, address, date_of_birth, registered_date)
+                     SELECT %s, ''Bench '' || n, ''bench'' || n || ''@example.com'', ''1 Bench St'',
+                            DATE ''1980-01-01'' + (n %% 10000)::int, CURRENT_DATE
+                     FROM generate_series($1, $2) AS n',
+                    target, id_expr)
+                USING batch_start, least(batch_start + 500, total) - 1;
+            batch_start := batch_start + 500;
+            COMMIT;
+        END LOOP;
+END;
+$$;
+
+\echo 'UUIDv4 (random) inserts'
+CALL bench_fill('bench_patient_v4', 'gen_random_uuid()', :rows);
+
+\echo 'UUIDv7 (time-ordered) inserts'
+CALL bench_fill('bench_patient_v7', 'bench_uuid_v7()', :rows);
+
+\timing off
+
+SELECT c.relname                          AS index_name,
+       pg_size_pretty(pg_relation_size(c.oid)) AS index_size
+FROM pg_class c
+WHERE c.relname IN ('bench_patient_v4_pkey', 'bench_patient_v7_pkey')
+ORDER BY c.relname;
+
+DROP PROCEDURE bench_fill(regclass, text, bigint);
+DROP FUNCTION bench_uuid_v7();
@@ -0,0 +1,24 @@
+-- Fills the patient table with synthetic rows for the export benchmark
+-- (benchmarks/export/export-throughput.sh). Existing patients are kept.
+--
+-- Run against the database patient-service uses:
+--   psql -d bench -v rows=10000000 -f seed-patients.sql
+
+\if :{?rows}
+\else
+\set rows 1000000
+\endif
+
+\timing on
+
+INSERT INTO patient (id, name, email, address, date_of_birth, registered_date, version)
+SELECT gen_random_uuid(),
+       'Patient ' || n,
+       'patient' || n || '@bench.example.com',
+       n || ' Main Street, Springfield',
+       DATE '1940-01-01' + (n % 25000),
+       DATE '2015-01-01' + (n % 3650),
+       0
+FROM generate_series(1, :rows) AS n;
+
+ANALYZE patient;
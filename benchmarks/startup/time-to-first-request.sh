@@ -0,0 +1,56 @@
+#!/usr/bin/env bash
+# Measures time-to-first-request: from launching the JVM until the first HTTP request succeeds.
+#
+#   benchmarks/startup/time-to-first-request.sh SERVICE MODE [RUNS] [JAVA_ARGS...]
+#
+# SERVICE  patient-service or billing-service
+# MODE     jar: the fat jar from a plain `mvn package`
+#          cds: the extracted jar and CDS archive from `mvn -Pfast-startup package`, with AOT on
+# RUNS     number of cold starts (default 5); prints every run and the median in ms
+#
+# Extra JAVA_ARGS are passed to every run, e.g. -Dspring.profiles.active=prod,fast-startup.
+# billing-service is probed through its actuator health endpoint, the only HTTP endpoint it has.
+set -euo pipefail
+
+SERVICE="$1"
+MODE="$2"
+RUNS="${3:-5}"
+shift $(( $# < 3 ? $# : 3 ))
+
+ROOT="$(cd "$(dirname "$0")/../.." && pwd)"
+TARGET="$ROOT/$SERVICE/target"
+JAR="$SERVICE-0.0.1-SNAPSHOT.jar"
+
+case "$SERVICE" in
+    patient-service) URL="http://localhost:4000/patients?limit=1" ;;
+    billing-service) URL="http://localhost:4001/actuator/health" ;;
+    *) echo "unknown service: $SERVICE" >&2; exit 1 ;;
+esac
+
+case "$MODE" in
+    jar) DIR="$TARGET"; MODE_ARGS=() ;;
+    cds) DIR="$TARGET/cds"; MODE_ARGS=(-XX:SharedArchiveFile=app.jsa -Dspring.aot.enabled=true) ;;
+    *) echo "unknown mode: $MODE" >&2; exit 1 ;;
+esac
+
+times=()
+for run in $(seq 1 "$RUNS"); do
+    start=$(date +%s%N)
+    (cd "$DIR" && exec java "${MODE_ARGS[@]}" "$@" -jar "$JAR") > "$TARGET/ttfr-$MODE-$run.log" 2>&1 &
+    pid=$!
+
+    until curl -sf -o /dev/null "$URL"; do
+        kill -0 "$pid" 2>/dev/null || { echo "run $run: $SERVICE exited, see $TARGET/ttfr-$MODE-$run.log" >&2; exit 1; }
+        sleep 0.02
+    done
+    end=$(date +%s%N)
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+
+    times+=($(( (end - start) / 1000000 )))
+    echo "run $run: ${times[-1]} ms"
+done
+
+sorted=($(printf '%s\n' "${times[@]}" | sort -n))
+echo "$SERVICE $MODE median: ${sorted[$(( RUNS / 2 ))]} ms over $RUNS runs"
@@ -0,0 +1,11 @@
+package com.pm.billingservice.account;
+
+import java.time.Instant;
+
+/**
+ * A billing account, one per patient. Immutable so it can be shared between threads freely.
+ */
+public record BillingAccount(String accountId, String patientId, String status, Instant createdAt) {
+
+    public static final String STATUS_ACTIVE = "ACTIVE";
+}
@@ -0,0 +1,187 @@
+package com.pm.billingservice.account;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Append-only file of created billing accounts, one tab-separated line per account:
+ * accountId, patientId, status, createdAt.
+ *
+ * The file is only ever appended to and is replayed at startup to rebuild the in-memory store.
+ * An append returns only once its line is forced to disk, so an acknowledged account survives
+ * power loss and kernel crashes, not just a crash of the process. Appends that arrive while a
+ * force is running are covered by the next one together (group commit), so concurrent callers
+ * share the cost of a sync instead of paying one each.
+ *
+ * A crash mid-write can leave a torn last line. Opening the log cuts the file back to the
+ * end of the last complete, parseable line, so the next append starts on a line of its own.
+ * Any other malformed line means the file is corrupt, and opening fails.
+ */
+class BillingAccountLog implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(BillingAccountLog.class);
+
+    private static final char SEPARATOR = '\t';
+    private static final char NEWLINE = '\n';
+
+    private final Path path;
+    private final List<BillingAccount> replayed;
+    private final FileChannel channel;
+
+    // Appends are the only serialized step, and only new accounts reach it
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+
+    // Lines written so far, and how many of them are known to be on disk
+    private volatile long written;
+    private long synced; // guarded by syncLock
+
+    BillingAccountLog(Path path) throws IOException {
+        this.path = path;
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        boolean created = !Files.exists(path);
+        this.replayed = created ? List.of() : recover();
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        if (created) {
+            syncDirectory(path.toAbsolutePath().getParent());
+        }
+    }
+
+    // A new file's directory entry must reach the disk too, or the whole file can vanish
+    private static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException ex) {
+            // Not every platform can open a directory (Windows cannot); the file itself is still forced
+            log.debug("Could not sync directory {}", directory, ex);
+        }
+    }
+
+    /**
+     * @return the accounts read from the file when the log was opened
+     */
+    List<BillingAccount> replay() {
+        return replayed;
+    }
+
+    /**
+     * Reads every complete line and truncates whatever follows the last good one.
+     */
+    private List<BillingAccount> recover() throws IOException {
+        byte[] content = Files.readAllBytes(path);
+        List<BillingAccount> accounts = new ArrayList<>();
+
+        // Only newline-terminated lines were written completely
+        int lastNewline = content.length - 1;
+        while (lastNewline >= 0 && content[lastNewline] != NEWLINE) {
+            lastNewline--;
+        }
+
+        int validLength = 0;
+        int lineNumber = 0;
+        for (int start = 0; start <= lastNewline; ) {
+            int end = start;
+            while (content[end] != NEWLINE) {
+                end++;
+            }
+            lineNumber++;
+            String line = new String(content, start, end - start, StandardCharsets.UTF_8);
+            try {
+                accounts.add(parse(line));
+            } catch (IllegalArgumentException | DateTimeParseException ex) {
+                if (end != lastNewline) {
+                    throw new IOException("Corrupt billing account log " + path + " at line " + lineNumber, ex);
+                }
+                // Torn last line that happens to end in a newline: drop it like any torn tail
+                break;
+            }
+            start = end + 1;
+            validLength = start;
+        }
+
+        if (validLength < content.length) {
+            log.warn("Truncating torn tail of billing account log {}: {} of {} bytes kept",
+                    path, validLength, content.length);
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.truncate(validLength);
+                channel.force(true);
+            }
+        }
+        return accounts;
+    }
+
+    private static BillingAccount parse(String line) {
+        String[] fields = line.split(String.valueOf(SEPARATOR), -1);
+        if (fields.length != 4) {
+            throw new IllegalArgumentException("Expected 4 fields but found " + fields.length);
+        }
+        return new BillingAccount(fields[0], fields[1], fields[2], Instant.parse(fields[3]));
+    }
+
+    /**
+     * Appends the account and returns once its line is on disk.
+     */
+    void append(BillingAccount account) {
+        // Not a platform line separator: the format must not depend on the platform
+        String line = account.accountId() + SEPARATOR + account.patientId() + SEPARATOR
+                + account.status() + SEPARATOR + account.createdAt() + NEWLINE;
+        ByteBuffer bytes = StandardCharsets.UTF_8.encode(line);
+
+        long lineNumber;
+        appendLock.lock();
+        try {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            lineNumber = ++written;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not append billing account " + account.accountId(), ex);
+        } finally {
+            appendLock.unlock();
+        }
+        sync(lineNumber, account);
+    }
+
+    /**
+     * Forces the file unless a force that started after the given line was written already did.
+     * A force covers every line written before it began, so appenders queued behind one sync
+     * are usually all covered by the next.
+     */
+    private void sync(long lineNumber, BillingAccount account) {
+        syncLock.lock();
+        try {
+            if (synced >= lineNumber) {
+                return;
+            }
+            long covered = written;
+            channel.force(false);
+            synced = covered;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not sync billing account " + account.accountId(), ex);
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,157 @@
+package com.pm.billingservice.account;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory store of billing accounts keyed by patient ID.
+ *
+ * Account creation is idempotent per patient: the first request for a patient claims it
+ * with ConcurrentHashMap.putIfAbsent, and duplicates get that request's account back.
+ * Requests for different patients never wait on each other.
+ * Account IDs come from a single atomic sequence and therefore never collide.
+ *
+ * When billing.accounts.log-path is set, every new account is appended to that file and
+ * synced to disk before it becomes visible, and the file is replayed on startup. The append runs outside any map
+ * lock; concurrent requests for the same patient wait for it to finish.
+ */
+@Component
+public class BillingAccountStore implements DisposableBean, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(BillingAccountStore.class);
+
+    private static final String ACCOUNT_ID_PREFIX = "BA-";
+
+    // Completed once the account is on disk; an incomplete entry is still being appended
+    private final ConcurrentMap<String, CompletableFuture<BillingAccount>> accountsByPatient =
+            new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final BillingAccountLog accountLog;
+
+    public BillingAccountStore(@Value("${billing.accounts.log-path:}") String logPath) throws IOException {
+        if (logPath == null || logPath.isBlank()) {
+            this.accountLog = null;
+            return;
+        }
+
+        this.accountLog = new BillingAccountLog(Path.of(logPath));
+        for (BillingAccount account : accountLog.replay()) {
+            accountsByPatient.put(account.patientId(), CompletableFuture.completedFuture(account));
+            sequence.accumulateAndGet(parseSequence(account.accountId()), Math::max);
+        }
+        log.info("Replayed {} billing accounts from {}", accountsByPatient.size(), logPath);
+    }
+
+    /**
+     * Returns the patient's account, creating it on first call.
+     * Concurrent calls for the same patient all receive the same account.
+     */
+    public BillingAccount getOrCreate(String patientId) {
+        return register(patientId).account();
+    }
+
+    /**
+     * Same as {@link #getOrCreate(String)}, but also tells whether this call created the account.
+     */
+    public Registration register(String patientId) {
+        CompletableFuture<BillingAccount> existing = accountsByPatient.get(patientId);
+        if (existing != null) {
+            return new Registration(await(existing), false);
+        }
+
+        CompletableFuture<BillingAccount> claim = new CompletableFuture<>();
+        existing = accountsByPatient.putIfAbsent(patientId, claim);
+        if (existing != null) {
+            return new Registration(await(existing), false);
+        }
+
+        BillingAccount account = newAccount(patientId);
+        // On disk before visible: if the append or its sync fails, the claim is withdrawn and waiters fail too
+        if (accountLog != null) {
+            try {
+                accountLog.append(account);
+            } catch (RuntimeException ex) {
+                accountsByPatient.remove(patientId, claim);
+                claim.completeExceptionally(ex);
+                throw ex;
+            }
+        }
+        claim.complete(account);
+        return new Registration(account, true);
+    }
+
+    /**
+     * @return the patient's account, unless it does not exist or is still being written
+     */
+    public Optional<BillingAccount> findByPatientId(String patientId) {
+        CompletableFuture<BillingAccount> account = accountsByPatient.get(patientId);
+        if (account == null || !account.isDone() || account.isCompletedExceptionally()) {
+            return Optional.empty();
+        }
+        return Optional.of(account.join());
+    }
+
+    public int size() {
+        return accountsByPatient.size();
+    }
+
+    private BillingAccount newAccount(String patientId) {
+        return new BillingAccount(
+                ACCOUNT_ID_PREFIX + sequence.incrementAndGet(),
+                patientId,
+                BillingAccount.STATUS_ACTIVE,
+                Instant.now());
+    }
+
+    private static BillingAccount await(CompletableFuture<BillingAccount> account) {
+        try {
+            return account.join();
+        } catch (CompletionException ex) {
+            // The creating request's append failed; fail the same way it did
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private static long parseSequence(String accountId) {
+        return Long.parseLong(accountId.substring(ACCOUNT_ID_PREFIX.length()));
+    }
+
+    public record Registration(BillingAccount account, boolean created) {
+    }
+
+    /**
+     * Publishes the number of accounts as billing.accounts.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("billing.accounts", this, BillingAccountStore::size)
+                .description("Billing accounts held by this instance")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        if (accountLog != null) {
+            accountLog.close();
+        }
+    }
+}
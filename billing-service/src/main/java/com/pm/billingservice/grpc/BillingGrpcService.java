@@ -1,12 +1,20 @@
 package com.pm.billingservice.grpc;
 
+import billing.BillingBatchSummary;
+import billing.BillingRequest;
 import billing.BillingResponse;
 import billing.BillingServiceGrpc.BillingServiceImplBase;
+import com.pm.billingservice.account.BillingAccount;
+import com.pm.billingservice.account.BillingAccountStore;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import net.devh.boot.grpc.server.service.GrpcService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 
 @GrpcService
 public class BillingGrpcService extends BillingServiceImplBase {
@@ -14,30 +22,159 @@ public class BillingGrpcService extends BillingServiceImplBase {
     
     private static final Logger log = LoggerFactory.getLogger(BillingGrpcService.class);
 
+    // Streamed answer for a request that cannot be turned into an account
+    private static final String STATUS_REJECTED = "REJECTED";
+
+    // Holds one account per patient; creation is idempotent and lock-free across patients
+    private final BillingAccountStore accountStore;
+
+    public BillingGrpcService(BillingAccountStore accountStore) {
+        this.accountStore = accountStore;
+    }
+
     /**
-     
+     * Creates the billing account of a patient, or returns the existing one when the
+     * patient already has an account, so retries and duplicate requests are safe.
      *
-     
+     * @param billingRequest carries the patientId the account belongs to
      * @param responseObserver is Used to send response back client to asynchronously
      */
     @Override
     public void createBillingAccount(billing.BillingRequest billingRequest, StreamObserver<billing.BillingResponse> responseObserver) {
 
-        // Log the received request 
-        log.info("createBillingAccount request received {}", billingRequest.toString());
+        // Per-call logging stays off in production; call counts and latency come from grpc.server.* metrics
+        log.debug("createBillingAccount request received for patient {}", billingRequest.getPatientId());
 
+        // An account cannot be keyed without a patient
+        if (billingRequest.getPatientId().isBlank()) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                    .withDescription("patientId is required")
+                    .asRuntimeException());
+            return;
+        }
 
-
-        // Build the response object with dummy values for now
-        BillingResponse response = BillingResponse.newBuilder()
-                .setAccountId("12345")   // Hardcoded account ID for demo
-                .setStatus("ACTIVE")     
-                .build();
+        BillingAccount account = accountStore.getOrCreate(billingRequest.getPatientId());
 
         // Send the response back to the client
-        responseObserver.onNext(response);
+        responseObserver.onNext(toResponse(account));
 
         // Mark the response as completed
         responseObserver.onCompleted();
     }
+
+    /**
+     * Client-streaming bulk creation: reads every request of the stream and answers once
+     * with a summary. Inbound flow control is left to gRPC, which requests the next message
+     * only after onNext returns, so a fast client cannot outrun the store.
+     *
+     * @param responseObserver receives the single summary when the client completes
+     * @return observer the client writes its requests to
+     */
+    @Override
+    public StreamObserver<BillingRequest> createBillingAccounts(StreamObserver<BillingBatchSummary> responseObserver) {
+        return new StreamObserver<>() {
+
+            private int received;
+            private int created;
+            private int existing;
+            private int rejected;
+
+            @Override
+            public void onNext(BillingRequest billingRequest) {
+                received++;
+                if (billingRequest.getPatientId().isBlank()) {
+                    rejected++;
+                    return;
+                }
+                if (accountStore.register(billingRequest.getPatientId()).created()) {
+                    created++;
+                } else {
+                    existing++;
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                // Accounts created so far stay; creation is idempotent, so the client can resend
+                log.warn("createBillingAccounts cancelled after {} requests: {}", received, t.toString());
+            }
+
+            @Override
+            public void onCompleted() {
+                log.debug("createBillingAccounts completed: {} received, {} created", received, created);
+                responseObserver.onNext(BillingBatchSummary.newBuilder()
+                        .setReceived(received)
+                        .setCreated(created)
+                        .setExisting(existing)
+                        .setRejected(rejected)
+                        .build());
+                responseObserver.onCompleted();
+            }
+        };
+    }
+
+    /**
+     * Bidirectional bulk creation: answers every request with its account, in request order.
+     *
+     * Flow control is manual. The next request is only pulled from the transport while the
+     * outbound side is ready; when the client stops reading, the server stops reading too
+     * and resumes from the on-ready callback. Unread requests then back up into HTTP/2 flow
+     * control on the client instead of piling up as responses in server memory.
+     *
+     * @param responseObserver receives one BillingResponse per request
+     * @return observer the client writes its requests to
+     */
+    @Override
+    public StreamObserver<BillingRequest> streamBillingAccounts(StreamObserver<BillingResponse> responseObserver) {
+        ServerCallStreamObserver<BillingResponse> serverObserver =
+                (ServerCallStreamObserver<BillingResponse>) responseObserver;
+        serverObserver.disableAutoRequest();
+
+        // Set when a request has been asked for and not yet answered; callbacks are serialized per call
+        AtomicBoolean awaitingRequest = new AtomicBoolean();
+
+        serverObserver.setOnReadyHandler(() -> {
+            if (serverObserver.isReady() && awaitingRequest.compareAndSet(false, true)) {
+                serverObserver.request(1);
+            }
+        });
+
+        return new StreamObserver<>() {
+            @Override
+            public void onNext(BillingRequest billingRequest) {
+                if (billingRequest.getPatientId().isBlank()) {
+                    serverObserver.onNext(BillingResponse.newBuilder()
+                            .setStatus(STATUS_REJECTED)
+                            .build());
+                } else {
+                    serverObserver.onNext(toResponse(accountStore.getOrCreate(billingRequest.getPatientId())));
+                }
+
+                // Keep pulling while the client keeps reading; otherwise wait for on-ready
+                if (serverObserver.isReady()) {
+                    serverObserver.request(1);
+                } else {
+                    awaitingRequest.set(false);
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                log.warn("streamBillingAccounts cancelled: {}", t.toString());
+            }
+
+            @Override
+            public void onCompleted() {
+                serverObserver.onCompleted();
+            }
+        };
+    }
+
+    private static BillingResponse toResponse(BillingAccount account) {
+        return BillingResponse.newBuilder()
+                .setAccountId(account.accountId())
+                .setStatus(account.status())
+                .setPatientId(account.patientId())
+                .build();
+    }
 }
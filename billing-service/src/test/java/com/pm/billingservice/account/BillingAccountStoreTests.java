@@ -0,0 +1,165 @@
+package com.pm.billingservice.account;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BillingAccountStoreTests {
+
+    @Test
+    void concurrentRequestsForOnePatientShareOneAccount() throws Exception {
+        BillingAccountStore store = new BillingAccountStore("");
+
+        List<Callable<BillingAccount>> calls = IntStream.range(0, 64)
+                .<Callable<BillingAccount>>mapToObj(i -> () -> store.getOrCreate("patient-1"))
+                .toList();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+            Set<String> accountIds = executor.invokeAll(calls).stream()
+                    .map(BillingAccountStoreTests::join)
+                    .map(BillingAccount::accountId)
+                    .collect(Collectors.toSet());
+
+            assertThat(accountIds).hasSize(1);
+        }
+        assertThat(store.size()).isEqualTo(1);
+    }
+
+    @Test
+    void accountIdsAreUniqueAcrossPatients() throws Exception {
+        BillingAccountStore store = new BillingAccountStore("");
+
+        List<Callable<BillingAccount>> calls = IntStream.range(0, 1_000)
+                .<Callable<BillingAccount>>mapToObj(i -> () -> store.getOrCreate("patient-" + i))
+                .toList();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+            Set<String> accountIds = executor.invokeAll(calls).stream()
+                    .map(BillingAccountStoreTests::join)
+                    .map(BillingAccount::accountId)
+                    .collect(Collectors.toSet());
+
+            assertThat(accountIds).hasSize(1_000);
+        }
+    }
+
+    @Test
+    void replaysAccountsFromTheLog(@TempDir Path dir) throws Exception {
+        String logPath = dir.resolve("accounts.log").toString();
+
+        BillingAccountStore first = new BillingAccountStore(logPath);
+        BillingAccount original = first.getOrCreate("patient-1");
+        first.destroy();
+
+        BillingAccountStore restarted = new BillingAccountStore(logPath);
+        BillingAccount replayed = restarted.findByPatientId("patient-1").orElseThrow();
+        assertThat(replayed.accountId()).isEqualTo(original.accountId());
+        assertThat(replayed.patientId()).isEqualTo("patient-1");
+        assertThat(replayed.status()).isEqualTo(BillingAccount.STATUS_ACTIVE);
+        assertThat(replayed.createdAt()).isEqualTo(original.createdAt());
+        assertThat(restarted.register("patient-1").created()).isFalse();
+        // The sequence continues after the replayed IDs
+        assertThat(restarted.getOrCreate("patient-2").accountId()).isEqualTo("BA-2");
+        restarted.destroy();
+    }
+
+    @Test
+    void concurrentAppendsAreAllReplayed(@TempDir Path dir) throws Exception {
+        String logPath = dir.resolve("accounts.log").toString();
+        BillingAccountStore first = new BillingAccountStore(logPath);
+
+        List<Callable<BillingAccount>> calls = IntStream.range(0, 200)
+                .<Callable<BillingAccount>>mapToObj(i -> () -> first.getOrCreate("patient-" + i))
+                .toList();
+        Set<BillingAccount> created;
+        try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+            created = executor.invokeAll(calls).stream()
+                    .map(BillingAccountStoreTests::join)
+                    .collect(Collectors.toSet());
+        }
+        first.destroy();
+
+        BillingAccountStore restarted = new BillingAccountStore(logPath);
+        assertThat(restarted.size()).isEqualTo(200);
+        for (BillingAccount account : created) {
+            assertThat(restarted.findByPatientId(account.patientId())).contains(account);
+        }
+        restarted.destroy();
+    }
+
+    @Test
+    void tornLastLineIsCutOffAndLaterAppendsSurvive(@TempDir Path dir) throws Exception {
+        Path logPath = dir.resolve("accounts.log");
+        BillingAccountStore first = new BillingAccountStore(logPath.toString());
+        BillingAccount original = first.getOrCreate("patient-1");
+        first.destroy();
+        // Crash mid-write: half a line, no newline, timestamp cut short
+        Files.writeString(logPath, "BA-2\tpatient-2\tACTIVE\t2026-10-", StandardOpenOption.APPEND);
+
+        BillingAccountStore restarted = new BillingAccountStore(logPath.toString());
+        assertThat(restarted.size()).isEqualTo(1);
+        BillingAccount next = restarted.getOrCreate("patient-3");
+        restarted.destroy();
+
+        BillingAccountStore again = new BillingAccountStore(logPath.toString());
+        assertThat(again.findByPatientId("patient-1")).contains(original);
+        assertThat(again.findByPatientId("patient-3")).contains(next);
+        assertThat(again.findByPatientId("patient-2")).isEmpty();
+        again.destroy();
+    }
+
+    @Test
+    void unparseableLastLineIsDroppedFromTheFile(@TempDir Path dir) throws Exception {
+        Path logPath = dir.resolve("accounts.log");
+        BillingAccountStore first = new BillingAccountStore(logPath.toString());
+        first.getOrCreate("patient-1");
+        first.destroy();
+        Files.writeString(logPath, "BA-2\tpatient-2\tACTIVE\t2026-10-\n", StandardOpenOption.APPEND);
+
+        BillingAccountStore restarted = new BillingAccountStore(logPath.toString());
+        assertThat(restarted.size()).isEqualTo(1);
+        restarted.getOrCreate("patient-3");
+        restarted.destroy();
+
+        assertThat(Files.readAllLines(logPath)).hasSize(2).noneMatch(line -> line.contains("patient-2"));
+        BillingAccountStore again = new BillingAccountStore(logPath.toString());
+        assertThat(again.size()).isEqualTo(2);
+        again.destroy();
+    }
+
+    @Test
+    void corruptLineBeforeTheEndFailsStartup(@TempDir Path dir) throws Exception {
+        Path logPath = dir.resolve("accounts.log");
+        Files.writeString(logPath, """
+                BA-1\tpatient-1\tACTIVE
+                BA-2\tpatient-2\tACTIVE\t2026-10-17T10:00:00Z
+                """);
+
+        assertThatThrownBy(() -> new BillingAccountStore(logPath.toString()))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("line 1");
+    }
+
+    private static BillingAccount join(Future<BillingAccount> future) {
+        try {
+            return future.get();
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.pm.billingservice.grpc;
+
+import billing.BillingBatchSummary;
+import billing.BillingRequest;
+import billing.BillingResponse;
+import billing.BillingServiceGrpc;
+import com.pm.billingservice.account.BillingAccountStore;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BillingGrpcServiceTests {
+
+    private Server server;
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name)
+                .addService(new BillingGrpcService(new BillingAccountStore("")))
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(name).build();
+    }
+
+    @AfterEach
+    void stopServer() throws Exception {
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void unaryCreationIsIdempotentPerPatient() {
+        BillingServiceGrpc.BillingServiceBlockingStub stub = BillingServiceGrpc.newBlockingStub(channel);
+
+        BillingResponse first = stub.createBillingAccount(request("patient-1"));
+        BillingResponse second = stub.createBillingAccount(request("patient-1"));
+
+        assertThat(second.getAccountId()).isEqualTo(first.getAccountId());
+        assertThat(first.getStatus()).isEqualTo("ACTIVE");
+    }
+
+    @Test
+    void clientStreamReturnsSummary() throws Exception {
+        BillingServiceGrpc.BillingServiceStub stub = BillingServiceGrpc.newStub(channel);
+        BillingServiceGrpc.newBlockingStub(channel).createBillingAccount(request("patient-0"));
+
+        CompletableFuture<BillingBatchSummary> summary = new CompletableFuture<>();
+        StreamObserver<BillingRequest> requests = stub.createBillingAccounts(collectInto(summary));
+        for (int i = 0; i < 10_000; i++) {
+            requests.onNext(request("patient-" + i));
+        }
+        requests.onNext(request(""));
+        requests.onCompleted();
+
+        assertThat(summary.get(10, TimeUnit.SECONDS)).isEqualTo(BillingBatchSummary.newBuilder()
+                .setReceived(10_001)
+                .setCreated(9_999)
+                .setExisting(1)
+                .setRejected(1)
+                .build());
+    }
+
+    @Test
+    void bidiStreamAnswersEveryRequestInOrder() throws Exception {
+        BillingServiceGrpc.BillingServiceStub stub = BillingServiceGrpc.newStub(channel);
+
+        List<BillingResponse> responses = new CopyOnWriteArrayList<>();
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        StreamObserver<BillingRequest> requests = stub.streamBillingAccounts(new StreamObserver<>() {
+            @Override
+            public void onNext(BillingResponse value) {
+                responses.add(value);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                done.completeExceptionally(t);
+            }
+
+            @Override
+            public void onCompleted() {
+                done.complete(null);
+            }
+        });
+        for (int i = 0; i < 10_000; i++) {
+            requests.onNext(request("patient-" + i));
+        }
+        requests.onCompleted();
+
+        done.get(10, TimeUnit.SECONDS);
+        assertThat(responses).hasSize(10_000);
+        assertThat(responses.get(9_999).getPatientId()).isEqualTo("patient-9999");
+    }
+
+    private static BillingRequest request(String patientId) {
+        return BillingRequest.newBuilder()
+                .setPatientId(patientId)
+                .setName("Test Patient")
+                .setEmail("test@example.com")
+                .build();
+    }
+
+    private static <T> StreamObserver<T> collectInto(CompletableFuture<T> result) {
+        return new StreamObserver<>() {
+            @Override
+            public void onNext(T value) {
+                result.complete(value);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                result.completeExceptionally(t);
+            }
+
+            @Override
+            public void onCompleted() {
+            }
+        };
+    }
+}
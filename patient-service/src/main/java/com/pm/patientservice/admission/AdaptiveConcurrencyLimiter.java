@@ -0,0 +1,184 @@
+package com.pm.patientservice.admission;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps the number of requests in flight at a limit that follows latency.
+ *
+ * Two moving averages of the request latency are kept: a recent one over roughly the last
+ * ten requests and a baseline over roughly the last six hundred. While recent latency stays
+ * within TOLERANCE of the baseline, the limit grows by about its square root; once requests
+ * start queueing in front of a slow database, recent latency rises above the baseline and
+ * the limit shrinks in proportion (the gradient), never by more than half at once. A failed
+ * request (5xx) cuts the limit by BACKOFF_RATIO outright. Beyond the limit a request is
+ * turned away at once instead of waiting for a thread or a connection.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    // Weight of each new sample in the recent and the baseline latency average
+    private static final double RECENT_ALPHA = 2.0 / (10 + 1);
+    private static final double BASELINE_ALPHA = 2.0 / (600 + 1);
+
+    // Recent latency may exceed the baseline by this factor before the limit shrinks
+    private static final double TOLERANCE = 1.5;
+
+    // Share of each newly computed limit taken over, so one slow request moves it little
+    private static final double SMOOTHING = 0.2;
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+
+    // Written under the monitor by sample(), read without it by tryAcquire()
+    private volatile double limit;
+
+    private long samples;
+
+    // Written under the monitor by sample(), read without it by the latency gauges
+    private volatile double recentNanos;
+    private volatile double baselineNanos;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.clamp(initialLimit, minLimit, maxLimit);
+    }
+
+    /**
+     * @return a permit to release when the request is done, or null if the limit is reached
+     */
+    public Permit tryAcquire() {
+        int current;
+        do {
+            current = inflight.get();
+            if (current >= (int) limit) {
+                rejected.incrementAndGet();
+                return null;
+            }
+        } while (!inflight.compareAndSet(current, current + 1));
+        return new Permit(current + 1);
+    }
+
+    public int limit() {
+        return (int) limit;
+    }
+
+    public int inflight() {
+        return inflight.get();
+    }
+
+    synchronized void sample(long latencyNanos, int inflightAtStart, boolean dropped) {
+        if (samples++ == 0) {
+            recentNanos = latencyNanos;
+            baselineNanos = latencyNanos;
+        }
+        recentNanos += (latencyNanos - recentNanos) * RECENT_ALPHA;
+        baselineNanos += (latencyNanos - baselineNanos) * BASELINE_ALPHA;
+
+        // After a long slowdown the baseline has crept up; let it fall back quickly once
+        // latency recovers, or the limit would stay too high for the next slowdown
+        if (baselineNanos > 2 * recentNanos) {
+            baselineNanos *= 0.95;
+        }
+
+        double newLimit;
+        if (dropped) {
+            newLimit = limit * BACKOFF_RATIO;
+        } else if (inflightAtStart < limit / 2) {
+            // Far below the limit, latency says nothing about whether more would fit
+            return;
+        } else {
+            double gradient = Math.clamp(TOLERANCE * baselineNanos / recentNanos, 0.5, 1.0);
+            newLimit = limit * gradient + Math.sqrt(limit);
+            newLimit = limit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        }
+        limit = Math.clamp(newLimit, minLimit, maxLimit);
+    }
+
+    /**
+     * Publishes limit, in-flight requests, rejections and both latency averages as
+     * patient.admission.* meters with the given tags.
+     */
+    public void bindTo(MeterRegistry registry, Tags tags) {
+        Gauge.builder("patient.admission.limit", this, AdaptiveConcurrencyLimiter::limit)
+                .description("Current concurrency limit")
+                .tags(tags)
+                .register(registry);
+        Gauge.builder("patient.admission.inflight", inflight, AtomicInteger::get)
+                .description("Requests currently holding a permit")
+                .tags(tags)
+                .register(registry);
+        FunctionCounter.builder("patient.admission.rejected", rejected, AtomicLong::get)
+                .description("Requests rejected with 503 because the limit was reached")
+                .tags(tags)
+                .register(registry);
+        TimeGauge.builder("patient.admission.latency", this, TimeUnit.NANOSECONDS, limiter -> limiter.recentNanos)
+                .description("Moving average of request latency, recent (~10 requests) or baseline (~600)")
+                .tags(tags.and("window", "recent"))
+                .register(registry);
+        TimeGauge.builder("patient.admission.latency", this, TimeUnit.NANOSECONDS, limiter -> limiter.baselineNanos)
+                .description("Moving average of request latency, recent (~10 requests) or baseline (~600)")
+                .tags(tags.and("window", "baseline"))
+                .register(registry);
+    }
+
+    /**
+     * One admitted request. Exactly one of the release methods takes effect.
+     */
+    public final class Permit {
+
+        private final long startNanos = System.nanoTime();
+        private final int inflightAtStart;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(int inflightAtStart) {
+            this.inflightAtStart = inflightAtStart;
+        }
+
+        /**
+         * The request completed; its latency feeds the limit.
+         */
+        public void success() {
+            if (release()) {
+                sample(System.nanoTime() - startNanos, inflightAtStart, false);
+            }
+        }
+
+        /**
+         * The request failed in a way that suggests overload; the limit backs off.
+         */
+        public void dropped() {
+            if (release()) {
+                sample(System.nanoTime() - startNanos, inflightAtStart, true);
+            }
+        }
+
+        /**
+         * The request is done but its latency says nothing about load (e.g. a bulk import).
+         */
+        public void ignore() {
+            release();
+        }
+
+        private boolean release() {
+            if (released.compareAndSet(false, true)) {
+                inflight.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.pm.patientservice.admission;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+/**
+ * Adaptive concurrency limits in front of PatientController (patient.admission.*), one for
+ * reads and one for writes. The change feed is not limited: its requests wait for changes,
+ * not for the database.
+ */
+@Configuration
+public class AdmissionControlConfig implements WebMvcConfigurer {
+
+    private final boolean enabled;
+    private final AdaptiveConcurrencyLimiter reads;
+    private final AdaptiveConcurrencyLimiter writes;
+    private final Duration retryAfter;
+
+    public AdmissionControlConfig(@Value("${patient.admission.enabled:true}") boolean enabled,
+                                  @Value("${patient.admission.read.initial-limit:40}") int readInitialLimit,
+                                  @Value("${patient.admission.read.min-limit:4}") int readMinLimit,
+                                  @Value("${patient.admission.read.max-limit:400}") int readMaxLimit,
+                                  @Value("${patient.admission.write.initial-limit:20}") int writeInitialLimit,
+                                  @Value("${patient.admission.write.min-limit:2}") int writeMinLimit,
+                                  @Value("${patient.admission.write.max-limit:200}") int writeMaxLimit,
+                                  @Value("${patient.admission.retry-after:1s}") Duration retryAfter,
+                                  MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.reads = new AdaptiveConcurrencyLimiter(readInitialLimit, readMinLimit, readMaxLimit);
+        this.writes = new AdaptiveConcurrencyLimiter(writeInitialLimit, writeMinLimit, writeMaxLimit);
+        this.retryAfter = retryAfter;
+        reads.bindTo(meterRegistry, Tags.of("budget", "read"));
+        writes.bindTo(meterRegistry, Tags.of("budget", "write"));
+    }
+
+    public AdaptiveConcurrencyLimiter reads() {
+        return reads;
+    }
+
+    public AdaptiveConcurrencyLimiter writes() {
+        return writes;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (!enabled) {
+            return;
+        }
+        // First in line, so a rejected request costs nothing beyond the check
+        registry.addInterceptor(new AdmissionControlInterceptor(reads, writes, retryAfter))
+                .addPathPatterns("/patients", "/patients/**")
+                .excludePathPatterns("/patients/changes")
+                .order(Ordered.HIGHEST_PRECEDENCE);
+    }
+}
@@ -0,0 +1,105 @@
+package com.pm.patientservice.admission;
+
+import com.pm.patientservice.admission.AdaptiveConcurrencyLimiter.Permit;
+import com.pm.patientservice.exception.ServiceOverloadedException;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Admission control for the patient API: every request needs a permit from the read
+ * budget (GET, HEAD) or the write budget (everything else) before it reaches the controller,
+ * and is rejected with 503 and Retry-After when its budget is used up. The budgets are
+ * separate so a burst of slow writes cannot starve reads, and the other way round.
+ *
+ * Latency is measured until the response is complete. Streaming responses keep their permit
+ * while the body is written on the async executor, since that is when they hold a connection,
+ * and give it back without a sample when the async dispatch completes, like bulk imports: their
+ * latency depends on the amount of data rather than on load.
+ */
+public class AdmissionControlInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String PERMIT = AdmissionControlInterceptor.class.getName() + ".permit";
+
+    private static final Set<String> UNSAMPLED_PATTERNS = Set.of("/patients/bulk");
+
+    private final AdaptiveConcurrencyLimiter reads;
+    private final AdaptiveConcurrencyLimiter writes;
+    private final Duration retryAfter;
+
+    public AdmissionControlInterceptor(AdaptiveConcurrencyLimiter reads, AdaptiveConcurrencyLimiter writes,
+                                       Duration retryAfter) {
+        this.reads = reads;
+        this.writes = writes;
+        this.retryAfter = retryAfter;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // The second dispatch of an async request was admitted the first time round
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+
+        boolean read = HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+        Permit permit = (read ? reads : writes).tryAcquire();
+        if (permit == null) {
+            throw new ServiceOverloadedException((read ? "Read" : "Write") + " concurrency limit reached for "
+                    + request.getMethod() + " " + request.getRequestURI(), retryAfter);
+        }
+        request.setAttribute(PERMIT, permit);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        // Normally released by afterCompletion() of the async dispatch; this only catches an
+        // async request that ends without one. Releasing twice has no effect.
+        if (request.getAttribute(PERMIT) instanceof Permit permit) {
+            request.getAsyncContext().addListener(new AsyncListener() {
+                @Override
+                public void onComplete(AsyncEvent event) {
+                    permit.ignore();
+                }
+
+                @Override
+                public void onTimeout(AsyncEvent event) {
+                }
+
+                @Override
+                public void onError(AsyncEvent event) {
+                }
+
+                @Override
+                public void onStartAsync(AsyncEvent event) {
+                }
+            });
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        if (!(request.getAttribute(PERMIT) instanceof Permit permit)) {
+            return;
+        }
+        if (request.getDispatcherType() == DispatcherType.ASYNC
+                || UNSAMPLED_PATTERNS.contains(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE))) {
+            permit.ignore();
+        } else if (ex != null || response.getStatus() >= 500) {
+            // Timeouts and pool exhaustion end up here: the clearest sign of overload
+            permit.dropped();
+        } else {
+            permit.success();
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.pm.patientservice.changefeed;
+
+import com.pm.patientservice.dto.PatientChangeDTO;
+import com.pm.patientservice.dto.PatientResponseDTO;
+import com.pm.patientservice.exception.ChangeFeedCursorExpiredException;
+import com.pm.patientservice.model.OutboxEventType;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory feed of committed patient writes, served over SSE and long-poll by
+ * ChangeFeedController.
+ *
+ * Changes go into one ring buffer holding the last capacity entries. Nobody gets a copy:
+ * every subscriber is just a cursor into the ring, and a virtual thread per subscriber
+ * sends what lies after its cursor, so a slow connection only ever blocks its own sender.
+ * A subscriber that falls more than subscriberMaxLag changes behind is disconnected and
+ * can resume from its last sequence while the ring still holds it. Writers never wait:
+ * appending is an array store plus waking the idle senders.
+ *
+ * Only writes made through this instance appear in its feed.
+ */
+@Component
+public class PatientChangeFeed implements MeterBinder, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(PatientChangeFeed.class);
+
+    /**
+     * Receives the changes of one subscription, in order, on that subscription's sender thread.
+     */
+    public interface Subscriber {
+
+        void onChange(PatientChangeDTO change) throws Exception;
+
+        /**
+         * The feed ended the subscription: the subscriber fell behind, a send failed or the
+         * server is stopping. Not called after {@link Subscription#cancel()}.
+         */
+        void onDropped(String reason);
+    }
+
+    private final PatientChangeDTO[] ring;
+    private final long subscriberMaxLag;
+
+    // Guards ring and lastSequence for writers; readers copy out under it
+    private final Object lock = new Object();
+
+    // Sequences start at the startup time in microseconds, so after a restart every
+    // cursor handed out by the previous process is older than the ring and expires
+    private final long firstSequence = System.currentTimeMillis() * 1000;
+    private volatile long lastSequence = firstSequence;
+
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final List<Runnable> waiters = new ArrayList<>();
+
+    private final ExecutorService senders =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("change-feed-", 0).factory());
+
+    private final AtomicLong droppedSubscribers = new AtomicLong();
+
+    public PatientChangeFeed(@Value("${patient.change-feed.capacity:10000}") int capacity,
+                             @Value("${patient.change-feed.subscriber-max-lag:1000}") long subscriberMaxLag) {
+        this.ring = new PatientChangeDTO[capacity];
+        this.subscriberMaxLag = Math.min(subscriberMaxLag, capacity);
+    }
+
+    /**
+     * Record a patient write. Inside a transaction the change is appended after commit,
+     * so subscribers never see a write that was rolled back.
+     *
+     * @param patient the patient after the change, null for a delete
+     */
+    public void published(OutboxEventType type, String patientId, PatientResponseDTO patient) {
+        publishedAll(type, List.of(new Pending(patientId, patient)));
+    }
+
+    /**
+     * Same as {@link #published} for all patients created by one bulk-import chunk.
+     */
+    public void created(List<PatientResponseDTO> patients) {
+        publishedAll(OutboxEventType.PATIENT_CREATED,
+                patients.stream().map(patient -> new Pending(patient.getId(), patient)).toList());
+    }
+
+    private void publishedAll(OutboxEventType type, List<Pending> changes) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    append(type, changes);
+                }
+            });
+        } else {
+            append(type, changes);
+        }
+    }
+
+    private void append(OutboxEventType type, List<Pending> changes) {
+        Instant now = Instant.now();
+        List<Runnable> woken;
+        synchronized (lock) {
+            long sequence = lastSequence;
+            for (Pending change : changes) {
+                sequence++;
+                ring[slot(sequence)] = new PatientChangeDTO(sequence, type, change.patientId(), change.patient(), now);
+            }
+            lastSequence = sequence;
+
+            woken = List.copyOf(waiters);
+            waiters.clear();
+        }
+
+        for (Subscription subscription : subscriptions) {
+            if (lastSequence - subscription.cursor > subscriberMaxLag) {
+                subscription.drop("fell more than " + subscriberMaxLag + " changes behind");
+            } else {
+                subscription.schedule();
+            }
+        }
+        woken.forEach(senders::execute);
+    }
+
+    /**
+     * Changes after the given sequence, oldest first and at most limit of them;
+     * empty when the caller is up to date.
+     *
+     * @throws ChangeFeedCursorExpiredException if the ring no longer holds the change after
+     *                                          the cursor, or the cursor is from another process
+     */
+    public List<PatientChangeDTO> changesAfter(long after, int limit) {
+        synchronized (lock) {
+            long oldest = Math.max(firstSequence + 1, lastSequence - ring.length + 1);
+            if (after < oldest - 1 || after > lastSequence) {
+                throw new ChangeFeedCursorExpiredException("Change feed cursor " + after
+                        + " is outside the retained range " + oldest + ".." + lastSequence);
+            }
+
+            long last = Math.min(lastSequence, after + limit);
+            List<PatientChangeDTO> changes = new ArrayList<>((int) (last - after));
+            for (long sequence = after + 1; sequence <= last; sequence++) {
+                changes.add(ring[slot(sequence)]);
+            }
+            return changes;
+        }
+    }
+
+    /**
+     * Run the callback once there is a change after the given sequence, right away if there
+     * already is one. Callbacks run on a sender thread, never on the writer's.
+     *
+     * @return removes the callback again, e.g. when the long poll times out
+     */
+    public Runnable onChangeAfter(long after, Runnable callback) {
+        synchronized (lock) {
+            if (lastSequence <= after) {
+                waiters.add(callback);
+                return () -> {
+                    synchronized (lock) {
+                        waiters.remove(callback);
+                    }
+                };
+            }
+        }
+        senders.execute(callback);
+        return () -> {
+        };
+    }
+
+    /**
+     * Stream every change after the given sequence to the subscriber, then every new one,
+     * until the returned subscription is cancelled or dropped.
+     *
+     * @throws ChangeFeedCursorExpiredException if the changes after the cursor are gone
+     */
+    public Subscription subscribe(long after, Subscriber subscriber) {
+        changesAfter(after, 0);
+
+        Subscription subscription = new Subscription(after, subscriber);
+        subscriptions.add(subscription);
+        subscription.schedule();
+        return subscription;
+    }
+
+    public long lastSequence() {
+        return lastSequence;
+    }
+
+    public int subscribers() {
+        return subscriptions.size();
+    }
+
+    private int slot(long sequence) {
+        return (int) Math.floorMod(sequence, (long) ring.length);
+    }
+
+    /**
+     * Publishes subscriber count and drops as patient.change.feed.* meters.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("patient.change.feed.subscribers", subscriptions, List::size)
+                .description("Open change-feed subscriptions (SSE)")
+                .register(registry);
+        FunctionCounter.builder("patient.change.feed.dropped", droppedSubscribers, AtomicLong::get)
+                .description("Subscriptions disconnected for falling behind or failing to send")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        subscriptions.forEach(subscription -> subscription.drop("server shutting down"));
+        senders.shutdownNow();
+    }
+
+    private record Pending(String patientId, PatientResponseDTO patient) {
+    }
+
+    /**
+     * One subscriber's position in the ring. At most one sender runs per subscription.
+     */
+    public final class Subscription implements Runnable {
+
+        // Sent in one go before the cursor is read again
+        private static final int SEND_BATCH = 100;
+
+        private final Subscriber subscriber;
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile long cursor;
+
+        private Subscription(long after, Subscriber subscriber) {
+            this.cursor = after;
+            this.subscriber = subscriber;
+        }
+
+        private void schedule() {
+            if (!closed.get() && sending.compareAndSet(false, true)) {
+                senders.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!closed.get()) {
+                    List<PatientChangeDTO> changes = changesAfter(cursor, SEND_BATCH);
+                    if (changes.isEmpty()) {
+                        sending.set(false);
+                        // A change appended after the read found its schedule() call still
+                        // sending; pick it up here instead of leaving it unsent
+                        if (cursor >= lastSequence || !sending.compareAndSet(false, true)) {
+                            return;
+                        }
+                        continue;
+                    }
+                    for (PatientChangeDTO change : changes) {
+                        subscriber.onChange(change);
+                        cursor = change.sequence();
+                    }
+                }
+            } catch (ChangeFeedCursorExpiredException ex) {
+                drop("fell behind the retained changes");
+            } catch (Exception ex) {
+                log.debug("Change feed subscriber failed: {}", ex.toString());
+                drop("send failed");
+            }
+        }
+
+        /**
+         * End the subscription from the subscriber's side, e.g. when the client disconnects.
+         */
+        public void cancel() {
+            if (closed.compareAndSet(false, true)) {
+                subscriptions.remove(this);
+            }
+        }
+
+        private void drop(String reason) {
+            if (closed.compareAndSet(false, true)) {
+                subscriptions.remove(this);
+                droppedSubscribers.incrementAndGet();
+                senders.execute(() -> subscriber.onDropped(reason));
+            }
+        }
+    }
+}
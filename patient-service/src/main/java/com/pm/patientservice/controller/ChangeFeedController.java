@@ -0,0 +1,130 @@
+package com.pm.patientservice.controller;
+
+import com.pm.patientservice.changefeed.PatientChangeFeed;
+import com.pm.patientservice.dto.PatientChangeDTO;
+import com.pm.patientservice.dto.PatientChangePageDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Change feed of patient writes, for clients that keep their own copy of the patient list.
+ *
+ * Start with GET /patients/changes (no cursor) to get the current sequence, load
+ * GET /patients, then follow the feed from that sequence. Changes carry the whole patient,
+ * so applying one twice is harmless. A 410 means the cursor is gone: start over.
+ */
+@RestController
+@RequestMapping("/patients/changes")
+@Tag(name = "Patient Changes", description = "Change feed of patient creates, updates and deletes")
+public class ChangeFeedController {
+
+    static final int MAX_POLL_SIZE = 500;
+
+    private final PatientChangeFeed changeFeed;
+    private final Duration longPollTimeout;
+    private final Duration sseTimeout;
+
+    public ChangeFeedController(PatientChangeFeed changeFeed,
+                                @Value("${patient.change-feed.long-poll-timeout:30s}") Duration longPollTimeout,
+                                @Value("${patient.change-feed.sse-timeout:30m}") Duration sseTimeout) {
+        this.changeFeed = changeFeed;
+        this.longPollTimeout = longPollTimeout;
+        this.sseTimeout = sseTimeout;
+    }
+
+    /**
+     * Long-poll: the changes after the cursor, waiting up to long-poll-timeout for the first
+     * one. Without a cursor, returns no changes and the current sequence to start from.
+     * The wait holds no request thread.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Poll Patient Changes")
+    public DeferredResult<ResponseEntity<PatientChangePageDTO>> pollChanges(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "100") int limit) {
+
+        DeferredResult<ResponseEntity<PatientChangePageDTO>> result = new DeferredResult<>(longPollTimeout.toMillis());
+        if (after == null) {
+            result.setResult(page(List.of(), changeFeed.lastSequence()));
+            return result;
+        }
+
+        int pageSize = Math.max(1, Math.min(limit, MAX_POLL_SIZE));
+        List<PatientChangeDTO> changes = changeFeed.changesAfter(after, pageSize);
+        if (!changes.isEmpty()) {
+            result.setResult(page(changes, after));
+            return result;
+        }
+
+        Runnable cancel = changeFeed.onChangeAfter(after, () -> {
+            try {
+                result.setResult(page(changeFeed.changesAfter(after, pageSize), after));
+            } catch (RuntimeException ex) {
+                result.setErrorResult(ex);
+            }
+        });
+        result.onTimeout(() -> {
+            cancel.run();
+            result.setResult(page(List.of(), after));
+        });
+        return result;
+    }
+
+    /**
+     * Server-Sent Events: one "PATIENT_CREATED", "PATIENT_UPDATED" or "PATIENT_DELETED"
+     * event per change, with the sequence as event ID. Browsers reconnect with Last-Event-ID
+     * and resume where they left off. A "reset" event ends a subscription that fell behind.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream Patient Changes (SSE)")
+    public SseEmitter streamChanges(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+            @RequestParam(required = false) Long after) {
+
+        long from = lastEventId != null ? lastEventId : after != null ? after : changeFeed.lastSequence();
+        SseEmitter emitter = new SseEmitter(sseTimeout.toMillis());
+
+        PatientChangeFeed.Subscription subscription = changeFeed.subscribe(from, new PatientChangeFeed.Subscriber() {
+            @Override
+            public void onChange(PatientChangeDTO change) throws Exception {
+                emitter.send(SseEmitter.event()
+                        .id(Long.toString(change.sequence()))
+                        .name(change.type().name())
+                        .data(change, MediaType.APPLICATION_JSON));
+            }
+
+            @Override
+            public void onDropped(String reason) {
+                try {
+                    emitter.send(SseEmitter.event().name("reset").data(reason));
+                    emitter.complete();
+                } catch (Exception ex) {
+                    emitter.completeWithError(ex);
+                }
+            }
+        });
+
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        emitter.onError(ex -> subscription.cancel());
+        return emitter;
+    }
+
+    private static ResponseEntity<PatientChangePageDTO> page(List<PatientChangeDTO> changes, long after) {
+        long next = changes.isEmpty() ? after : changes.get(changes.size() - 1).sequence();
+        return ResponseEntity.ok(new PatientChangePageDTO(changes, next));
+    }
+}
@@ -1,19 +1,43 @@
 package com.pm.patientservice.controller;
 
+import com.pm.patientservice.dto.PatientImportResultDTO;
+import com.pm.patientservice.dto.PatientPageResponseDTO;
+import com.pm.patientservice.dto.PatientPatchDTO;
 import com.pm.patientservice.dto.PatientRequestDTO;
 import com.pm.patientservice.dto.PatientResponseDTO;
+import com.pm.patientservice.dto.PatientSummaryDTO;
 import com.pm.patientservice.dto.validators.CreatePatientValidationGroup;
+import com.pm.patientservice.exception.PatientVersionConflictException;
+import com.pm.patientservice.mapper.PatientProtoMapper;
+import com.pm.patientservice.protobuf.ProtobufConfig;
+import com.pm.patientservice.service.PatientChangeTracker;
+import com.pm.patientservice.service.PatientExportService;
+import com.pm.patientservice.service.PatientImportService;
 import com.pm.patientservice.service.PatientService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import jakarta.validation.groups.Default;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import patient.Patient;
+import patient.PatientList;
 
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/patients")
@@ -23,15 +47,117 @@ public class PatientController {
     //exporting the context of patient service
     private final PatientService patientService;
 
-    public PatientController(PatientService patientService) {
+    private final PatientImportService patientImportService;
+
+    private final PatientExportService patientExportService;
+
+    private final PatientChangeTracker changeTracker;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    public PatientController(PatientService patientService, PatientImportService patientImportService,
+                             PatientExportService patientExportService, PatientChangeTracker changeTracker,
+                             PlatformTransactionManager transactionManager) {
         this.patientService = patientService;
+        this.patientImportService = patientImportService;
+        this.patientExportService = patientExportService;
+        this.changeTracker = changeTracker;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
     }
 
     @GetMapping
     @Operation(summary = "Get Patients")
-    public ResponseEntity<List<PatientResponseDTO>> getPatients() {
-        List<PatientResponseDTO> patients = patientService.getPatients();
-        return ResponseEntity.ok(patients);
+    public ResponseEntity<List<PatientSummaryDTO>> getPatients(WebRequest request) {
+        return ifModified(request, () -> {
+            List<PatientSummaryDTO> patients = patientService.getPatients();
+            return ResponseEntity.ok(patients);
+        });
+    }
+
+    @GetMapping(produces = ProtobufConfig.APPLICATION_PROTOBUF_VALUE)
+    @Operation(summary = "Get Patients (protobuf)")
+    public ResponseEntity<PatientList> getPatientsProto(WebRequest request) {
+        return ifModified(request, () -> {
+            PatientList patients = PatientProtoMapper.toProto(patientService.getPatients());
+            return ResponseEntity.ok(patients);
+        });
+    }
+
+    @GetMapping(params = "limit")
+    @Operation(summary = "Get Patients Page")
+    public ResponseEntity<PatientPageResponseDTO> getPatientPage(
+            @RequestParam int limit,
+            @RequestParam(required = false) String cursor,
+            WebRequest request) {
+        return ifModified(request, () -> {
+            PatientPageResponseDTO page = patientService.getPatientPage(cursor, limit);
+            return ResponseEntity.ok(page);
+        });
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream Patients")
+    public ResponseEntity<StreamingResponseBody> streamPatients() {
+        StreamingResponseBody body = patientService::streamPatients;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @GetMapping(value = "/stream", produces = ProtobufConfig.APPLICATION_PROTOBUF_VALUE)
+    @Operation(summary = "Stream Patients (length-delimited protobuf)")
+    public ResponseEntity<StreamingResponseBody> streamPatientsProto() {
+        StreamingResponseBody body = patientService::streamPatientsProto;
+        return ResponseEntity.ok()
+                .contentType(ProtobufConfig.APPLICATION_PROTOBUF)
+                .body(body);
+    }
+
+    @GetMapping(value = "/export", produces = "text/csv")
+    @Operation(summary = "Export Patients (CSV)")
+    public ResponseEntity<StreamingResponseBody> exportPatientsCsv(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return export(PatientExportService.Format.CSV, acceptEncoding);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @Operation(summary = "Export Patients (Postgres binary COPY format)")
+    public ResponseEntity<StreamingResponseBody> exportPatientsBinary(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return export(PatientExportService.Format.BINARY, acceptEncoding);
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search Patients")
+    public ResponseEntity<List<PatientResponseDTO>> searchPatients(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dobFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dobTo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate registeredFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate registeredTo,
+            @RequestParam(defaultValue = "20") int limit,
+            WebRequest request) {
+
+        return ifModified(request, () -> {
+            List<PatientResponseDTO> patients = patientService.searchPatients(
+                    q, dobFrom, dobTo, registeredFrom, registeredTo, limit);
+            return ResponseEntity.ok(patients);
+        });
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get Patient")
+    public ResponseEntity<PatientResponseDTO> getPatient(@PathVariable UUID id) {
+        PatientResponseDTO patient = patientService.getPatient(id);
+        return ResponseEntity.ok().eTag(eTag(patient)).body(patient);
+    }
+
+    @GetMapping(value = "/{id}", produces = ProtobufConfig.APPLICATION_PROTOBUF_VALUE)
+    @Operation(summary = "Get Patient (protobuf)")
+    public ResponseEntity<Patient> getPatientProto(@PathVariable UUID id) {
+        PatientResponseDTO patient = patientService.getPatient(id);
+        return ResponseEntity.ok().eTag(eTag(patient)).body(PatientProtoMapper.toProto(patient));
     }
 
     @PostMapping
@@ -40,17 +166,42 @@ public class PatientController {
             @Validated({Default.class, CreatePatientValidationGroup.class}) @RequestBody PatientRequestDTO patientRequestDTO) {
 
         PatientResponseDTO patientResponseDTO = patientService.createPatient(patientRequestDTO);
-        return ResponseEntity.ok(patientResponseDTO);
+        return ResponseEntity.ok().eTag(eTag(patientResponseDTO)).body(patientResponseDTO);
+    }
+
+    @PostMapping(value = "/bulk", consumes = {
+            MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    @Operation(summary = "Bulk Import Patients")
+    public ResponseEntity<PatientImportResultDTO> importPatients(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body) {
+
+        PatientImportResultDTO result = patientImportService.importPatients(body, contentType);
+        return ResponseEntity.ok(result);
     }
 
     @PutMapping("/{id}")
     @Operation(summary = "Update Patient")
     public ResponseEntity<PatientResponseDTO> updatePatient(
             @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Validated({Default.class}) @RequestBody PatientRequestDTO patientRequestDTO) {
 
-        PatientResponseDTO updatedPatient = patientService.updatePatient(id, patientRequestDTO);
-        return ResponseEntity.ok(updatedPatient);
+        PatientResponseDTO updatedPatient = patientService.updatePatient(
+                id, patientRequestDTO, expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(eTag(updatedPatient)).body(updatedPatient);
+    }
+
+    @PatchMapping("/{id}")
+    @Operation(summary = "Partially Update Patient")
+    public ResponseEntity<PatientResponseDTO> patchPatient(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody PatientPatchDTO patientPatchDTO) {
+
+        PatientResponseDTO patchedPatient = patientService.patchPatient(
+                id, patientPatchDTO, expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(eTag(patchedPatient)).body(patchedPatient);
     }
 
     @DeleteMapping("/{id}")
@@ -62,4 +213,100 @@ public class PatientController {
         patientService.deletePatient(id);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Conditional GET on a collection, validated by the table-wide change counter.
+     * Sets ETag and Last-Modified, and answers 304 when the client's copy is current,
+     * after reading only the counter. Otherwise the response is built in the same read-only
+     * transaction, so the rows come from the database (primary or replica) the counter came from.
+     */
+    private <T> ResponseEntity<T> ifModified(WebRequest request, Supplier<ResponseEntity<T>> response) {
+        return readOnlyTransaction.execute(status -> {
+            PatientChangeTracker.Snapshot snapshot = changeTracker.current();
+            return request.checkNotModified(snapshot.eTag(), snapshot.lastModified()) ? null : response.get();
+        });
+    }
+
+    // Export bodies are compressed by the export itself (at its fastest level) when the client accepts gzip
+    private ResponseEntity<StreamingResponseBody> export(PatientExportService.Format format, String acceptEncoding) {
+        boolean gzip = acceptsGzip(acceptEncoding);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(format.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(format.fileName()).build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        StreamingResponseBody body = out -> patientExportService.export(format, gzip, out);
+        return response.body(body);
+    }
+
+    /**
+     * Whether an Accept-Encoding header allows gzip: listed as gzip (or x-gzip), or covered by "*",
+     * with a q-value above 0. An explicit entry wins over "*", so "gzip;q=0, *" still means no gzip.
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double any = null;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String coding = parts[0].strip().toLowerCase(Locale.ROOT);
+            double q = qValue(parts);
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzip = q;
+            } else if (coding.equals("*")) {
+                any = q;
+            }
+        }
+        double q = gzip != null ? gzip : any != null ? any : 0;
+        return q > 0;
+    }
+
+    // The q parameter of one Accept-Encoding entry; 1 when absent, 0 when it is not a number
+    private static double qValue(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].strip();
+            if (parameter.length() > 2 && parameter.substring(0, 2).equalsIgnoreCase("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).strip());
+                } catch (NumberFormatException ex) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    // A patient's ETag is its optimistic-locking version, weak because the JSON and protobuf (and gzipped)
+    // representations share it; Spring answers a matching If-None-Match with 304
+    private static String eTag(PatientResponseDTO patient) {
+        return "W/\"" + patient.getVersion() + "\"";
+    }
+
+    /**
+     * The version named by an If-Match header, e.g. W/"3" as returned in the ETag, or "3".
+     * No header or "*" means the client does not ask for a version check.
+     */
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.strip().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.strip();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        try {
+            return Long.valueOf(tag);
+        } catch (NumberFormatException ex) {
+            // Not one of our ETags, so it cannot match the current version either
+            throw new PatientVersionConflictException("If-Match " + ifMatch + " is not a patient version");
+        }
+    }
 }
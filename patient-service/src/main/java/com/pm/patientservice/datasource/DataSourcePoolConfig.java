@@ -0,0 +1,48 @@
+package com.pm.patientservice.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Connection pool sizing derived from the CPU count (patient.datasource.connections-per-core).
+ */
+@Configuration
+public class DataSourcePoolConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(DataSourcePoolConfig.class);
+
+    static final String MAXIMUM_POOL_SIZE = "spring.datasource.hikari.maximum-pool-size";
+
+    /**
+     * Sizes the Hikari pool as cores * connections-per-core + 1 before it opens its first
+     * connection. A pool much larger than that only queues more work inside the database.
+     * Does nothing when connections-per-core is 0 or the pool size is set explicitly
+     * (as the virtual-threads profile does). Decided at runtime rather than with a
+     * condition, so it also applies to an AOT-processed build.
+     */
+    @Bean
+    public static BeanPostProcessor hikariPoolSizer(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                int perCore = environment.getProperty("patient.datasource.connections-per-core", Integer.class, 0);
+                if (bean instanceof HikariDataSource dataSource && perCore > 0
+                        && !environment.containsProperty(MAXIMUM_POOL_SIZE)) {
+                    int poolSize = poolSize(Runtime.getRuntime().availableProcessors(), perCore);
+                    dataSource.setMaximumPoolSize(poolSize);
+                    log.info("Connection pool {} sized to {} connections", beanName, poolSize);
+                }
+                return bean;
+            }
+        };
+    }
+
+    static int poolSize(int cores, int connectionsPerCore) {
+        return cores * connectionsPerCore + 1;
+    }
+}
@@ -0,0 +1,111 @@
+package com.pm.patientservice.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read/write splitting over Postgres read replicas (patient.datasource.replicas).
+ *
+ * Without replicas nothing changes. With them, the auto-configured primary pool is wrapped
+ * in a ReadWriteRoutingDataSource and each replica gets a pool with the primary's settings.
+ * Like DataSourcePoolConfig this is decided at runtime, so it also applies to an AOT build.
+ */
+@Configuration
+public class ReadReplicaConfig implements WebMvcConfigurer {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadReplicaConfig.class);
+
+    static final String REPLICAS = "patient.datasource.replicas";
+
+    @Bean
+    public static BeanPostProcessor readReplicaRouter(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                List<String> urls = replicaUrls(environment);
+                if (!(bean instanceof HikariDataSource primary) || urls.isEmpty()) {
+                    return bean;
+                }
+
+                List<HikariDataSource> replicas = new ArrayList<>(urls.size());
+                for (int i = 0; i < urls.size(); i++) {
+                    replicas.add(replica(primary, urls.get(i), beanName + "-replica-" + i));
+                }
+                Duration checkInterval = environment.getProperty(
+                        "patient.datasource.replica-check-interval", Duration.class, Duration.ofSeconds(5));
+
+                log.info("Read-only transactions of {} routed to {} read replicas", beanName, replicas.size());
+                return new ReadWriteRoutingDataSource(primary,
+                        new ReadReplicaDataSource(primary, replicas, checkInterval));
+            }
+        };
+    }
+
+    /**
+     * Exports the replicas' rotation state and pool metrics, if there are replicas.
+     */
+    @Bean
+    public MeterBinder readReplicaMetrics(ObjectProvider<DataSource> dataSource) {
+        return registry -> {
+            if (dataSource.getIfUnique() instanceof ReadWriteRoutingDataSource routing) {
+                routing.getReplicas().bindTo(registry);
+            }
+        };
+    }
+
+    /**
+     * Sends a client's reads to the primary for read-your-writes-window after its own write.
+     * Only active with replicas; without them every read already goes to the primary.
+     */
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(Environment environment) {
+        Duration window = replicaUrls(environment).isEmpty() ? Duration.ZERO : environment.getProperty(
+                "patient.datasource.read-your-writes-window", Duration.class, Duration.ofSeconds(5));
+        return new ReadYourWritesFilter(window);
+    }
+
+    /**
+     * Keeps a request's ReadRouting for handlers that run on another thread, like streamed responses.
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new ReadRoutingCallableInterceptor());
+    }
+
+    static List<String> replicaUrls(Environment environment) {
+        return Binder.get(environment).bind(REPLICAS, Bindable.listOf(String.class)).orElse(List.of());
+    }
+
+    /**
+     * A pool for one replica with the primary's settings, credentials and driver properties.
+     * It opens its first connection lazily, so an unreachable replica does not stop startup.
+     */
+    private static HikariDataSource replica(HikariDataSource primary, String url, String poolName) {
+        HikariConfig config = new HikariConfig();
+        primary.copyStateTo(config);
+        config.setJdbcUrl(url);
+        config.setPoolName(poolName);
+        config.setReadOnly(true);
+
+        HikariDataSource replica = new HikariDataSource();
+        config.copyStateTo(replica);
+        return replica;
+    }
+}
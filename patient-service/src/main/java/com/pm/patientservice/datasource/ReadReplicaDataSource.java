@@ -0,0 +1,199 @@
+package com.pm.patientservice.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The read replicas as one DataSource, used for read-only transactions.
+ *
+ * Connections are handed out round-robin over the replicas in rotation. A replica that
+ * cannot be reached is ejected and the next one is tried. A replica whose pool is merely
+ * busy (Hikari's connection timeout) stays in rotation and the error reaches the caller,
+ * as it would on the primary. A background check
+ * probes every replica each checkInterval, ejecting dead ones before a request runs into
+ * them and putting recovered ones back. When no replica is in rotation, or the current
+ * thread needs its own writes (see ReadRouting), connections come from the primary.
+ */
+public class ReadReplicaDataSource extends AbstractDataSource implements MeterBinder, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadReplicaDataSource.class);
+
+    // Seconds a probe waits for a replica to answer
+    private static final int PROBE_TIMEOUT_SECONDS = 2;
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final AtomicLong ejections = new AtomicLong();
+    private final AtomicLong primaryFallbacks = new AtomicLong();
+
+    private final ScheduledExecutorService healthCheck;
+
+    public ReadReplicaDataSource(DataSource primary, List<? extends DataSource> replicas, Duration checkInterval) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.healthCheck = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().daemon().name("replica-health-check").factory());
+        if (checkInterval.isPositive()) {
+            healthCheck.scheduleWithFixedDelay(this::checkReplicas,
+                    checkInterval.toMillis(), checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (ReadRouting.isPrimaryRequired()) {
+            return primary.getConnection();
+        }
+
+        int start = next.getAndIncrement();
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(Math.floorMod(start + i, replicas.size()));
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException ex) {
+                if (!isConnectivityFailure(ex)) {
+                    throw ex;
+                }
+                eject(replica, ex);
+            }
+        }
+
+        // Slower than a replica, but better than failing reads the primary can answer
+        primaryFallbacks.incrementAndGet();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLException("Read replica connections always use the pool's credentials");
+    }
+
+    /**
+     * Number of replicas currently in rotation.
+     */
+    public int healthyReplicas() {
+        return (int) replicas.stream().filter(replica -> replica.healthy).count();
+    }
+
+    void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (!connection.isValid(PROBE_TIMEOUT_SECONDS)) {
+                    throw new SQLNonTransientConnectionException("connection is not valid");
+                }
+                if (!replica.healthy) {
+                    replica.healthy = true;
+                    log.info("Read replica {} is back in rotation", replica.name());
+                }
+            } catch (SQLException ex) {
+                if (isConnectivityFailure(ex)) {
+                    eject(replica, ex);
+                }
+            } catch (RuntimeException ex) {
+                // Keep the scheduled check alive whatever a driver throws
+                eject(replica, new SQLException(ex));
+            }
+        }
+    }
+
+    /**
+     * Whether the replica itself could not be reached: SQLState class 08 (connection exception)
+     * anywhere in the chain. Hikari reports an unreachable database as a connection timeout
+     * carrying the last connect failure and its SQLState; a pool that is only busy has none.
+     */
+    static boolean isConnectivityFailure(SQLException ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLNonTransientConnectionException) {
+                return true;
+            }
+            if (cause instanceof SQLException sql && sql.getSQLState() != null && sql.getSQLState().startsWith("08")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void eject(Replica replica, SQLException ex) {
+        if (replica.healthy) {
+            replica.healthy = false;
+            ejections.incrementAndGet();
+            log.warn("Read replica {} ejected: {}", replica.name(), ex.getMessage());
+        }
+    }
+
+    /**
+     * Publishes rotation state, ejections and primary fallbacks as patient.datasource.replica*
+     * meters, and the replicas' own Hikari pool metrics.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("patient.datasource.replicas.healthy", this, ReadReplicaDataSource::healthyReplicas)
+                .description("Read replicas currently in rotation")
+                .register(registry);
+        FunctionCounter.builder("patient.datasource.replica.ejections", ejections, AtomicLong::get)
+                .description("Read replicas taken out of rotation after a failed connection or probe")
+                .register(registry);
+        FunctionCounter.builder("patient.datasource.replica.primary.fallbacks", primaryFallbacks, AtomicLong::get)
+                .description("Read-only connections served by the primary because no replica was in rotation")
+                .register(registry);
+
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof HikariDataSource hikari
+                    && hikari.getMetricRegistry() == null && hikari.getMetricsTrackerFactory() == null) {
+                hikari.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        healthCheck.shutdownNow();
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception ex) {
+                    log.warn("Could not close read replica {}: {}", replica.name(), ex.getMessage());
+                }
+            }
+        }
+    }
+
+    private static final class Replica {
+
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+
+        private Replica(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        private String name() {
+            return dataSource instanceof HikariDataSource hikari ? hikari.getPoolName() : dataSource.toString();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.pm.patientservice.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Lets code on the current thread insist on the primary for read-only transactions, for
+ * reads that must not see a lagging replica. Has no effect when no replicas are configured.
+ * Async MVC handlers inherit it from their request (see ReadRoutingCallableInterceptor).
+ */
+public final class ReadRouting {
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private ReadRouting() {
+    }
+
+    /**
+     * Run the given work with every connection it opens taken from the primary.
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        boolean outermost = requirePrimary();
+        try {
+            return work.get();
+        } finally {
+            if (outermost) {
+                release();
+            }
+        }
+    }
+
+    /**
+     * @return false if the primary was already required, in which case don't release it
+     */
+    static boolean requirePrimary() {
+        if (isPrimaryRequired()) {
+            return false;
+        }
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+        return true;
+    }
+
+    static void release() {
+        PRIMARY_REQUIRED.remove();
+    }
+
+    static boolean isPrimaryRequired() {
+        return PRIMARY_REQUIRED.get() != null;
+    }
+}
@@ -0,0 +1,42 @@
+package com.pm.patientservice.datasource;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Carries ReadRouting over to the thread that runs an async handler, such as the
+ * StreamingResponseBody of /patients/stream and /patients/export. The routing is captured
+ * on the request thread when the handler is handed off and applied on the worker thread
+ * only while the handler runs, so pooled workers do not keep it.
+ */
+class ReadRoutingCallableInterceptor implements CallableProcessingInterceptor {
+
+    private static final String PRIMARY_REQUIRED = ReadRoutingCallableInterceptor.class.getName() + ".primaryRequired";
+    private static final String APPLIED = ReadRoutingCallableInterceptor.class.getName() + ".applied";
+
+    @Override
+    public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+        if (ReadRouting.isPrimaryRequired()) {
+            request.setAttribute(PRIMARY_REQUIRED, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    @Override
+    public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+        if (request.getAttribute(PRIMARY_REQUIRED, RequestAttributes.SCOPE_REQUEST) != null
+                && ReadRouting.requirePrimary()) {
+            request.setAttribute(APPLIED, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+        if (request.getAttribute(APPLIED, RequestAttributes.SCOPE_REQUEST) != null) {
+            request.removeAttribute(APPLIED, RequestAttributes.SCOPE_REQUEST);
+            ReadRouting.release();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.pm.patientservice.datasource;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * The application's DataSource when read replicas are configured: read-only transactions
+ * run on the replicas, everything else on the primary.
+ *
+ * The physical connection is only picked at the first statement, after the transaction
+ * manager has marked the connection read-only or not; until then every transaction holds
+ * a placeholder. Code without a transaction always runs on the primary.
+ */
+public class ReadWriteRoutingDataSource extends LazyConnectionDataSourceProxy implements DisposableBean {
+
+    private final ReadReplicaDataSource replicas;
+
+    public ReadWriteRoutingDataSource(DataSource primary, ReadReplicaDataSource replicas) {
+        super(primary);
+        this.replicas = replicas;
+        setReadOnlyDataSource(replicas);
+    }
+
+    public ReadReplicaDataSource getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Closes the replica pools and the primary pool, which is no longer the bean Spring
+     * would otherwise close.
+     */
+    @Override
+    public void destroy() throws Exception {
+        replicas.close();
+        if (obtainTargetDataSource() instanceof AutoCloseable primary) {
+            primary.close();
+        }
+    }
+}
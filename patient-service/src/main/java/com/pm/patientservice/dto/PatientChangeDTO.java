@@ -0,0 +1,20 @@
+package com.pm.patientservice.dto;
+
+import com.pm.patientservice.model.OutboxEventType;
+
+import java.time.Instant;
+
+/**
+ * One committed patient write in the change feed.
+ *
+ * @param sequence   position in the feed; resume after it with ?after= or Last-Event-ID
+ * @param patient    the patient after the change, null for PATIENT_DELETED
+ * @param occurredAt when the change was committed
+ */
+public record PatientChangeDTO(
+        long sequence,
+        OutboxEventType type,
+        String patientId,
+        PatientResponseDTO patient,
+        Instant occurredAt) {
+}
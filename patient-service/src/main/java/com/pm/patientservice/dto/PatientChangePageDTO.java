@@ -0,0 +1,37 @@
+package com.pm.patientservice.dto;
+
+import java.util.List;
+
+/**
+ * Result of one long-poll on the change feed.
+ * Pass {@code next} as ?after= on the following poll; it is unchanged when the poll timed out empty.
+ */
+public class PatientChangePageDTO {
+
+    private List<PatientChangeDTO> changes;
+    private long next;
+
+    public PatientChangePageDTO() {
+    }
+
+    public PatientChangePageDTO(List<PatientChangeDTO> changes, long next) {
+        this.changes = changes;
+        this.next = next;
+    }
+
+    public List<PatientChangeDTO> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<PatientChangeDTO> changes) {
+        this.changes = changes;
+    }
+
+    public long getNext() {
+        return next;
+    }
+
+    public void setNext(long next) {
+        this.next = next;
+    }
+}
@@ -0,0 +1,58 @@
+package com.pm.patientservice.dto;
+
+import java.util.List;
+
+/**
+ * Summary of a bulk patient import with one result per submitted row.
+ */
+public class PatientImportResultDTO {
+
+    private int total;
+    private int created;
+    private int rejected;
+    private List<PatientImportRowResultDTO> rows;
+
+    public PatientImportResultDTO() {
+    }
+
+    public PatientImportResultDTO(List<PatientImportRowResultDTO> rows) {
+        this.rows = rows;
+        this.total = rows.size();
+        this.created = (int) rows.stream()
+                .filter(row -> row.getStatus() == PatientImportRowResultDTO.Status.CREATED)
+                .count();
+        this.rejected = total - created;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(int rejected) {
+        this.rejected = rejected;
+    }
+
+    public List<PatientImportRowResultDTO> getRows() {
+        return rows;
+    }
+
+    public void setRows(List<PatientImportRowResultDTO> rows) {
+        this.rows = rows;
+    }
+}
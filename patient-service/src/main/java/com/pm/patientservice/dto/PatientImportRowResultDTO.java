@@ -0,0 +1,64 @@
+package com.pm.patientservice.dto;
+
+import java.util.Map;
+
+/**
+ * Outcome of a single row of a bulk patient import.
+ * Rows are numbered from 1 in the order they appear in the request body.
+ */
+public class PatientImportRowResultDTO {
+
+    /**
+     * CREATED - the patient was inserted.
+     * INVALID - the row failed validation, see errors.
+     * DUPLICATE - the email is already registered or appears earlier in the same import.
+     */
+    public enum Status { CREATED, INVALID, DUPLICATE }
+
+    private int row;
+    private Status status;
+    private String id;
+    private Map<String, String> errors;
+
+    public PatientImportRowResultDTO() {
+    }
+
+    public PatientImportRowResultDTO(int row, Status status, String id, Map<String, String> errors) {
+        this.row = row;
+        this.status = status;
+        this.id = id;
+        this.errors = errors;
+    }
+
+    public int getRow() {
+        return row;
+    }
+
+    public void setRow(int row) {
+        this.row = row;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Map<String, String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(Map<String, String> errors) {
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,37 @@
+package com.pm.patientservice.dto;
+
+import java.util.List;
+
+/**
+ * One page of patients returned by keyset pagination.
+ * The {@code next} token is opaque to clients and is null on the last page.
+ */
+public class PatientPageResponseDTO {
+
+    private List<PatientResponseDTO> items;
+    private String next;
+
+    public PatientPageResponseDTO() {
+    }
+
+    public PatientPageResponseDTO(List<PatientResponseDTO> items, String next) {
+        this.items = items;
+        this.next = next;
+    }
+
+    public List<PatientResponseDTO> getItems() {
+        return items;
+    }
+
+    public void setItems(List<PatientResponseDTO> items) {
+        this.items = items;
+    }
+
+    public String getNext() {
+        return next;
+    }
+
+    public void setNext(String next) {
+        this.next = next;
+    }
+}
@@ -0,0 +1,63 @@
+package com.pm.patientservice.dto;
+
+import com.pm.patientservice.dto.validators.IsoDate;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Body of PATCH /patients/{id}: a field that is absent or null is left unchanged.
+ * Fields that are present follow the same rules as in {@link PatientRequestDTO}.
+ */
+public class PatientPatchDTO {
+
+    // Anything with at least one non-whitespace character; null means "not provided"
+    private static final String NOT_BLANK = "(?s).*\\S.*";
+
+    @Pattern(regexp = NOT_BLANK, message = "Name cannot be blank")
+    @Size(max = 100, message = "Name cannot exceed 100 characters")
+    private String name;
+
+    @Pattern(regexp = NOT_BLANK, message = "Email cannot be blank")
+    @Email(message = "Email should be valid")
+    private String email;
+
+    @Pattern(regexp = NOT_BLANK, message = "Address cannot be blank")
+    private String address;
+
+    @Pattern(regexp = NOT_BLANK, message = "Date of birth cannot be blank")
+    @IsoDate(message = "Date of birth must use the yyyy-MM-dd format")
+    private String dateOfBirth;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public void setAddress(String address) {
+        this.address = address;
+    }
+
+    public String getDateOfBirth() {
+        return dateOfBirth;
+    }
+
+    public void setDateOfBirth(String dateOfBirth) {
+        this.dateOfBirth = dateOfBirth;
+    }
+}
@@ -1,5 +1,7 @@
 package com.pm.patientservice.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 public class PatientResponseDTO {
     private String id;
 
@@ -47,4 +49,16 @@ public class PatientResponseDTO {
     private String email;
     private String address;
     private String dateOfBirth;
+
+    // Sent as the ETag header and checked against If-Match, not part of the body
+    @JsonIgnore
+    private Long version;
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
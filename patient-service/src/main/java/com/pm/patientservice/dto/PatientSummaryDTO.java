@@ -0,0 +1,24 @@
+package com.pm.patientservice.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.pm.patientservice.json.PatientSummaryJsonSerializer;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Read-only view of a patient, filled straight from a JPQL constructor expression.
+ *
+ * Serializes to exactly the same JSON as {@link PatientResponseDTO}, but skips entity
+ * hydration, dirty-checking snapshots and the per-row String conversions of PatientMapper:
+ * {@link PatientSummaryJsonSerializer} writes the UUID and LocalDate values straight into
+ * the output buffer.
+ */
+@JsonSerialize(using = PatientSummaryJsonSerializer.class)
+public record PatientSummaryDTO(
+        UUID id,
+        String name,
+        String email,
+        String address,
+        LocalDate dateOfBirth) {
+}
@@ -0,0 +1,27 @@
+package com.pm.patientservice.dto.validators;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * A date in the yyyy-MM-dd format that LocalDate.parse accepts, so e.g. 2024-02-30 is rejected too.
+ * Null and blank values are left to the other constraints on the field.
+ */
+@Documented
+@Constraint(validatedBy = IsoDateValidator.class)
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface IsoDate {
+
+    String message() default "Dates must use the yyyy-MM-dd format";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
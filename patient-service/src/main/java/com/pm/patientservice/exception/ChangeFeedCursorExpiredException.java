@@ -0,0 +1,7 @@
+package com.pm.patientservice.exception;
+
+public class ChangeFeedCursorExpiredException extends RuntimeException {
+    public ChangeFeedCursorExpiredException(String message) {
+        super(message);
+    }
+}
@@ -2,6 +2,8 @@ package com.pm.patientservice.exception;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -79,4 +81,99 @@ public class GlobalExceptionHandler {
         // Return 400 Bad Request with the error details
         return ResponseEntity.badRequest().body(errors);
     }
+
+    /**
+     * Handles an update based on an outdated copy of the patient.
+     *
+     * @param ex the PatientVersionConflictException thrown when If-Match or the version column does not match
+     * @return ResponseEntity telling the client to reload the patient
+     */
+    @ExceptionHandler(PatientVersionConflictException.class)
+    public ResponseEntity<Map<String, String>> handlePatientVersionConflictException(PatientVersionConflictException ex) {
+
+        log.warn("Patient Version Conflict {}", ex.getMessage());
+
+        Map<String, String> errors = new HashMap<>();
+        errors.put("message", "patient was modified by someone else, reload it and try again");
+
+        // Return 409 Conflict with the error details
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errors);
+    }
+
+    /**
+     * Handles a pagination cursor that could not be decoded.
+     *
+     * @param ex the InvalidCursorException thrown when the token is malformed
+     * @return ResponseEntity containing an informative error message
+     */
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidCursorException(InvalidCursorException ex) {
+
+        log.warn("Invalid Cursor {}", ex.getMessage());
+
+        Map<String, String> errors = new HashMap<>();
+        errors.put("message", "cursor is invalid, restart from the first page");
+
+        // Return 400 Bad Request with the error details
+        return ResponseEntity.badRequest().body(errors);
+    }
+
+    /**
+     * Handles a change-feed cursor whose changes are no longer retained.
+     *
+     * @param ex the ChangeFeedCursorExpiredException thrown for an old or foreign cursor
+     * @return ResponseEntity telling the client to reload and follow the feed again
+     */
+    @ExceptionHandler(ChangeFeedCursorExpiredException.class)
+    public ResponseEntity<Map<String, String>> handleChangeFeedCursorExpiredException(
+            ChangeFeedCursorExpiredException ex) {
+
+        log.warn("Change Feed Cursor Expired {}", ex.getMessage());
+
+        Map<String, String> errors = new HashMap<>();
+        errors.put("message", "changes after this cursor are no longer available, reload the patients");
+
+        // Return 410 Gone with the error details
+        return ResponseEntity.status(HttpStatus.GONE).body(errors);
+    }
+
+    /**
+     * Handles a request turned away by admission control because too many are in flight.
+     * Logged at debug only: under overload this fires for every shed request, and the
+     * patient.admission.rejected counter already tracks it.
+     *
+     * @param ex the ServiceOverloadedException thrown before the request reached the controller
+     * @return ResponseEntity telling the client when to try again
+     */
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<Map<String, String>> handleServiceOverloadedException(ServiceOverloadedException ex) {
+
+        log.debug("Service Overloaded {}", ex.getMessage());
+
+        Map<String, String> errors = new HashMap<>();
+        errors.put("message", "service is overloaded, retry later");
+
+        // Return 503 Service Unavailable with a Retry-After hint in whole seconds
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, ex.getRetryAfter().toSeconds())))
+                .body(errors);
+    }
+
+    /**
+     * Handles a bulk import body that could not be parsed.
+     *
+     * @param ex the InvalidImportException thrown when a row cannot be read
+     * @return ResponseEntity containing the position where parsing stopped
+     */
+    @ExceptionHandler(InvalidImportException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidImportException(InvalidImportException ex) {
+
+        log.warn("Invalid Import {}", ex.getMessage(), ex.getCause());
+
+        Map<String, String> errors = new HashMap<>();
+        errors.put("message", ex.getMessage());
+
+        // Return 400 Bad Request with the error details
+        return ResponseEntity.badRequest().body(errors);
+    }
 }
@@ -0,0 +1,7 @@
+package com.pm.patientservice.exception;
+
+public class PatientVersionConflictException extends RuntimeException {
+    public PatientVersionConflictException(String message) {
+        super(message);
+    }
+}
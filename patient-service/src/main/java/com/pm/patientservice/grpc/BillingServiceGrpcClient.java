@@ -0,0 +1,250 @@
+package com.pm.patientservice.grpc;
+
+import billing.BillingBatchSummary;
+import billing.BillingRequest;
+import billing.BillingServiceGrpc;
+import io.grpc.ManagedChannel;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Non-blocking client that provisions billing accounts in billing-service.
+ *
+ * Callers only enqueue a request and get a future back, so patient creation never waits
+ * for the billing round-trip. A single batcher thread coalesces queued requests into
+ * CreateBillingAccounts client streams of up to batchSize messages, waiting at most
+ * linger for a batch to fill. At most maxInFlight streams are open at once; when they
+ * are all busy the batcher waits, the queue fills up, and new requests are rejected
+ * instead of growing memory without bound.
+ *
+ * Streams are spread round-robin over a small pool of long-lived channels.
+ */
+public class BillingServiceGrpcClient implements AutoCloseable, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(BillingServiceGrpcClient.class);
+
+    // A batch that takes longer than this is failed and its futures completed exceptionally
+    private static final Duration CALL_DEADLINE = Duration.ofSeconds(10);
+
+    private final List<ManagedChannel> channels;
+    private final List<BillingServiceGrpc.BillingServiceStub> stubs;
+    private final AtomicInteger nextStub = new AtomicInteger();
+
+    private final BlockingQueue<PendingRequest> queue;
+    private final Semaphore inFlight;
+    private final int maxInFlight;
+    private final AtomicLong rejected = new AtomicLong();
+    private final int batchSize;
+    private final long lingerNanos;
+
+    private final Thread batcher;
+    private volatile boolean running = true;
+
+    public BillingServiceGrpcClient(List<ManagedChannel> channels, int batchSize, Duration linger,
+                                    int maxInFlight, int queueCapacity) {
+        this.channels = List.copyOf(channels);
+        this.stubs = this.channels.stream().map(BillingServiceGrpc::newStub).toList();
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.inFlight = new Semaphore(maxInFlight);
+        this.maxInFlight = maxInFlight;
+        this.batchSize = batchSize;
+        this.lingerNanos = linger.toNanos();
+
+        this.batcher = new Thread(this::runBatcher, "billing-batcher");
+        this.batcher.setDaemon(true);
+        this.batcher.start();
+    }
+
+    /**
+     * Queue the creation of a patient's billing account.
+     *
+     * @return future completed once the batch containing the request has been acknowledged,
+     * or completed exceptionally if the queue is full or the call fails
+     */
+    public CompletableFuture<Void> createBillingAccount(String patientId, String name, String email) {
+        PendingRequest pending = new PendingRequest(BillingRequest.newBuilder()
+                .setPatientId(patientId)
+                .setName(name)
+                .setEmail(email)
+                .build(), new CompletableFuture<>());
+
+        if (!running || !queue.offer(pending)) {
+            rejected.incrementAndGet();
+            pending.result().completeExceptionally(
+                    new RejectedExecutionException("Billing request queue is full or closed"));
+        }
+        return pending.result();
+    }
+
+    private void runBatcher() {
+        List<PendingRequest> batch = new ArrayList<>(batchSize);
+        try {
+            while (running) {
+                PendingRequest first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fillBatch(batch);
+
+                // Bounded in-flight calls: wait here, not in the callers' threads
+                inFlight.acquire();
+                List<PendingRequest> sending = List.copyOf(batch);
+                batch.clear();
+                send(sending);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Closed: whatever was not sent will not be sent by this client
+        batch.forEach(PendingRequest::reject);
+        queue.forEach(PendingRequest::reject);
+    }
+
+    // Take whatever is already queued, then wait up to the linger time for the rest
+    private void fillBatch(List<PendingRequest> batch) throws InterruptedException {
+        queue.drainTo(batch, batchSize - batch.size());
+
+        long deadline = System.nanoTime() + lingerNanos;
+        while (batch.size() < batchSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            PendingRequest next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+            queue.drainTo(batch, batchSize - batch.size());
+        }
+    }
+
+    /**
+     * Open one stream for the batch. Never throws: a batch that cannot be sent is failed on
+     * its own, so the batcher thread keeps running and its in-flight permit is given back.
+     */
+    private void send(List<PendingRequest> batch) {
+        BillingServiceGrpc.BillingServiceStub stub = stubs.get(
+                Math.floorMod(nextStub.getAndIncrement(), stubs.size()));
+
+        // The permit is released exactly once, whether the call ends or could not be started
+        AtomicBoolean finished = new AtomicBoolean();
+        StreamObserver<BillingRequest> requests = null;
+        try {
+            requests = stub
+                    .withDeadlineAfter(CALL_DEADLINE.toMillis(), TimeUnit.MILLISECONDS)
+                    .createBillingAccounts(new StreamObserver<>() {
+                        @Override
+                        public void onNext(BillingBatchSummary summary) {
+                            log.debug("Billing batch acknowledged: {} created, {} existing",
+                                    summary.getCreated(), summary.getExisting());
+                        }
+
+                        @Override
+                        public void onError(Throwable t) {
+                            log.warn("Billing batch of {} requests failed: {}", batch.size(), t.toString());
+                            finish(batch, finished, t);
+                        }
+
+                        @Override
+                        public void onCompleted() {
+                            finish(batch, finished, null);
+                        }
+                    });
+
+            for (PendingRequest pending : batch) {
+                requests.onNext(pending.request());
+            }
+            requests.onCompleted();
+        } catch (RuntimeException ex) {
+            log.error("Billing batch of {} requests could not be sent", batch.size(), ex);
+            if (requests != null) {
+                cancel(requests, ex);
+            }
+            finish(batch, finished, ex);
+        }
+    }
+
+    private static void cancel(StreamObserver<BillingRequest> requests, RuntimeException cause) {
+        try {
+            requests.onError(cause);
+        } catch (RuntimeException ex) {
+            cause.addSuppressed(ex);
+        }
+    }
+
+    private void finish(List<PendingRequest> batch, AtomicBoolean finished, Throwable failure) {
+        if (!finished.compareAndSet(false, true)) {
+            return;
+        }
+        inFlight.release();
+        if (failure == null) {
+            batch.forEach(pending -> pending.result().complete(null));
+        } else {
+            batch.forEach(pending -> pending.result().completeExceptionally(failure));
+        }
+    }
+
+    public int queuedRequests() {
+        return queue.size();
+    }
+
+    public int inFlightCalls() {
+        return maxInFlight - inFlight.availablePermits();
+    }
+
+    /**
+     * Publishes queue depth, open streams and rejections as billing.client.* meters.
+     * A queue that stays near capacity while in-flight sits at its maximum means billing
+     * cannot keep up.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("billing.client.queue.size", queue, BlockingQueue::size)
+                .description("Billing requests waiting to be batched")
+                .register(registry);
+        Gauge.builder("billing.client.in.flight", this, BillingServiceGrpcClient::inFlightCalls)
+                .description("CreateBillingAccounts streams currently open")
+                .register(registry);
+        FunctionCounter.builder("billing.client.rejected", rejected, AtomicLong::get)
+                .description("Billing requests rejected because the queue was full or closed")
+                .register(registry);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        batcher.interrupt();
+        batcher.join(TimeUnit.SECONDS.toMillis(5));
+        for (ManagedChannel channel : channels) {
+            channel.shutdown().awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private record PendingRequest(BillingRequest request, CompletableFuture<Void> result) {
+
+        void reject() {
+            result.completeExceptionally(new RejectedExecutionException("Billing client closed"));
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.pm.patientservice.grpc;
+
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wires the billing-service gRPC client from the billing.* properties.
+ */
+@Configuration
+public class BillingServiceGrpcClientConfig {
+
+    @Bean(destroyMethod = "close")
+    public BillingServiceGrpcClient billingServiceGrpcClient(
+            @Value("${billing.service.address:localhost}") String address,
+            @Value("${billing.service.grpc.port:9001}") int port,
+            @Value("${billing.client.channels:2}") int channelCount,
+            @Value("${billing.client.batch-size:200}") int batchSize,
+            @Value("${billing.client.linger:10ms}") Duration linger,
+            @Value("${billing.client.max-in-flight:8}") int maxInFlight,
+            @Value("${billing.client.queue-capacity:10000}") int queueCapacity) {
+
+        // Channels connect lazily and are kept warm with HTTP/2 keepalive pings
+        List<ManagedChannel> channels = new ArrayList<>(channelCount);
+        for (int i = 0; i < channelCount; i++) {
+            channels.add(ManagedChannelBuilder.forAddress(address, port)
+                    .usePlaintext()
+                    .keepAliveTime(30, TimeUnit.SECONDS)
+                    .keepAliveWithoutCalls(true)
+                    .build());
+        }
+
+        return new BillingServiceGrpcClient(channels, batchSize, linger, maxInFlight, queueCapacity);
+    }
+}
@@ -0,0 +1,26 @@
+package com.pm.patientservice.json;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.util.JsonRecyclerPools;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Jackson settings for response writing.
+ */
+@Configuration
+public class JsonConfig {
+
+    /**
+     * Share Jackson's output buffers across requests through one concurrent pool.
+     * The default pool is per thread, which never reuses anything when every request
+     * runs on a new virtual thread (spring.threads.virtual.enabled).
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer sharedBufferPool() {
+        return builder -> builder.factory(JsonFactory.builder()
+                .recyclerPool(JsonRecyclerPools.sharedConcurrentDequePool())
+                .build());
+    }
+}
@@ -0,0 +1,127 @@
+package com.pm.patientservice.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.pm.patientservice.dto.PatientSummaryDTO;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Hand-written serializer for the patient listing (GET /patients and /patients/stream).
+ *
+ * Produces exactly the bytes of Jackson's default record binding, but:
+ * - field names are pre-encoded once instead of looked up per row,
+ * - accessors are called directly instead of through reflection,
+ * - the UUID and the date are formatted into a reused char buffer and copied straight
+ *   into the generator's output buffer, so no String is created for either.
+ */
+public class PatientSummaryJsonSerializer extends StdSerializer<PatientSummaryDTO> {
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString NAME = new SerializedString("name");
+    private static final SerializedString EMAIL = new SerializedString("email");
+    private static final SerializedString ADDRESS = new SerializedString("address");
+    private static final SerializedString DATE_OF_BIRTH = new SerializedString("dateOfBirth");
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private static final int UUID_LENGTH = 36;
+    private static final int ISO_DATE_LENGTH = 10;
+
+    // One scratch buffer per thread, reused for every UUID and date that thread writes
+    private static final ThreadLocal<char[]> SCRATCH = ThreadLocal.withInitial(() -> new char[UUID_LENGTH]);
+
+    public PatientSummaryJsonSerializer() {
+        super(PatientSummaryDTO.class);
+    }
+
+    @Override
+    public void serialize(PatientSummaryDTO patient, JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+        char[] scratch = SCRATCH.get();
+
+        generator.writeStartObject(patient);
+
+        generator.writeFieldName(ID);
+        if (patient.id() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(scratch, 0, formatUuid(patient.id(), scratch));
+        }
+
+        // writeString(null) writes a JSON null, like the default binding
+        generator.writeFieldName(NAME);
+        generator.writeString(patient.name());
+        generator.writeFieldName(EMAIL);
+        generator.writeString(patient.email());
+        generator.writeFieldName(ADDRESS);
+        generator.writeString(patient.address());
+
+        generator.writeFieldName(DATE_OF_BIRTH);
+        LocalDate dateOfBirth = patient.dateOfBirth();
+        if (dateOfBirth == null) {
+            generator.writeNull();
+        } else if (provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)) {
+            // Plain Jackson writes [yyyy,M,d]; Spring Boot turns that off and gets ISO text below
+            provider.defaultSerializeValue(dateOfBirth, generator);
+        } else if (dateOfBirth.getYear() < 0 || dateOfBirth.getYear() > 9999) {
+            // Signed or 5+ digit years follow ISO-8601's expanded form; leave those to LocalDate
+            generator.writeString(dateOfBirth.toString());
+        } else {
+            generator.writeString(scratch, 0, formatDate(dateOfBirth, scratch));
+        }
+
+        generator.writeEndObject();
+    }
+
+    /**
+     * Same text as {@link UUID#toString()}: 8-4-4-4-12 lowercase hex digits.
+     */
+    static int formatUuid(UUID uuid, char[] out) {
+        long msb = uuid.getMostSignificantBits();
+        long lsb = uuid.getLeastSignificantBits();
+        hex(msb >>> 32, out, 0, 8);
+        out[8] = '-';
+        hex(msb >>> 16, out, 9, 4);
+        out[13] = '-';
+        hex(msb, out, 14, 4);
+        out[18] = '-';
+        hex(lsb >>> 48, out, 19, 4);
+        out[23] = '-';
+        hex(lsb, out, 24, 12);
+        return UUID_LENGTH;
+    }
+
+    /**
+     * Same text as {@link LocalDate#toString()} for years 0 to 9999: yyyy-MM-dd.
+     */
+    static int formatDate(LocalDate date, char[] out) {
+        digits(date.getYear(), out, 0, 4);
+        out[4] = '-';
+        digits(date.getMonthValue(), out, 5, 2);
+        out[7] = '-';
+        digits(date.getDayOfMonth(), out, 8, 2);
+        return ISO_DATE_LENGTH;
+    }
+
+    // Lowest `count` nibbles of value, most significant first
+    private static void hex(long value, char[] out, int offset, int count) {
+        for (int i = offset + count - 1; i >= offset; i--) {
+            out[i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+
+    // Zero-padded decimal
+    private static void digits(int value, char[] out, int offset, int count) {
+        for (int i = offset + count - 1; i >= offset; i--) {
+            out[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
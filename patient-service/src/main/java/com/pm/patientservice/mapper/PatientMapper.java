@@ -31,6 +31,9 @@ public class PatientMapper {
             patientDTO.setDateOfBirth(null);
         }
 
+        // Optimistic-locking version, exposed to clients as the ETag
+        patientDTO.setVersion(patient.getVersion());
+
         return patientDTO;
     }
 
@@ -0,0 +1,68 @@
+package com.pm.patientservice.mapper;
+
+import com.pm.patientservice.dto.PatientResponseDTO;
+import com.pm.patientservice.dto.PatientSummaryDTO;
+import patient.Patient;
+import patient.PatientList;
+
+import java.util.List;
+
+
+public class PatientProtoMapper {
+
+    /**
+     * Converts a listing row to its protobuf message.
+     * Values are the same strings the JSON response carries; protobuf has no null,
+     * so a missing value is sent as the empty string (the field's default).
+     */
+    public static Patient toProto(PatientSummaryDTO patient) {
+        Patient.Builder builder = Patient.newBuilder();
+        if (patient.id() != null) {
+            builder.setId(patient.id().toString());
+        }
+        if (patient.name() != null) {
+            builder.setName(patient.name());
+        }
+        if (patient.email() != null) {
+            builder.setEmail(patient.email());
+        }
+        if (patient.address() != null) {
+            builder.setAddress(patient.address());
+        }
+        if (patient.dateOfBirth() != null) {
+            builder.setDateOfBirth(patient.dateOfBirth().toString());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Converts a single patient response to its protobuf message.
+     */
+    public static Patient toProto(PatientResponseDTO patient) {
+        Patient.Builder builder = Patient.newBuilder();
+        if (patient.getId() != null) {
+            builder.setId(patient.getId());
+        }
+        if (patient.getName() != null) {
+            builder.setName(patient.getName());
+        }
+        if (patient.getEmail() != null) {
+            builder.setEmail(patient.getEmail());
+        }
+        if (patient.getAddress() != null) {
+            builder.setAddress(patient.getAddress());
+        }
+        if (patient.getDateOfBirth() != null) {
+            builder.setDateOfBirth(patient.getDateOfBirth());
+        }
+        return builder.build();
+    }
+
+    public static PatientList toProto(List<PatientSummaryDTO> patients) {
+        PatientList.Builder builder = PatientList.newBuilder();
+        for (PatientSummaryDTO patient : patients) {
+            builder.addPatients(toProto(patient));
+        }
+        return builder.build();
+    }
+}
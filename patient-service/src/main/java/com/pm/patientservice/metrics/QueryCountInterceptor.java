@@ -0,0 +1,59 @@
+package com.pm.patientservice.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records how many SQL statements each request issued, per endpoint
+ * (http.server.requests.db.statements). A count that grows with the size of the
+ * response is an N+1 query.
+ *
+ * Only statements run on the request thread are counted; streaming responses that
+ * read the database after the handler returned are not.
+ */
+public class QueryCountInterceptor implements HandlerInterceptor {
+
+    private final MeterRegistry meterRegistry;
+
+    // One summary per handler method, so the steady state does not allocate per request
+    private final Map<Method, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    public QueryCountInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            StatementCounter.begin();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return;
+        }
+        int statements = StatementCounter.end();
+        summaries.computeIfAbsent(handlerMethod.getMethod(), method -> DistributionSummary
+                        .builder("http.server.requests.db.statements")
+                        .description("SQL statements issued while handling one request")
+                        .baseUnit("statements")
+                        .tag("method", request.getMethod())
+                        .tag("uri", String.valueOf(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE)))
+                        .publishPercentileHistogram()
+                        .register(meterRegistry))
+                .record(statements);
+    }
+}
@@ -0,0 +1,49 @@
+package com.pm.patientservice.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread between
+ * {@link #begin()} and {@link #end()}. Registered as Hibernate's statement inspector;
+ * the SQL itself is passed through untouched.
+ *
+ * Counting is a thread-local increment, so it is cheap enough to stay on in production.
+ */
+public class StatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<Count> CURRENT = ThreadLocal.withInitial(Count::new);
+
+    @Override
+    public String inspect(String sql) {
+        Count count = CURRENT.get();
+        if (count.active) {
+            count.statements++;
+        }
+        return sql;
+    }
+
+    /**
+     * Start counting on the current thread.
+     */
+    public static void begin() {
+        Count count = CURRENT.get();
+        count.active = true;
+        count.statements = 0;
+    }
+
+    /**
+     * Stop counting on the current thread.
+     *
+     * @return statements prepared since {@link #begin()}
+     */
+    public static int end() {
+        Count count = CURRENT.get();
+        count.active = false;
+        return count.statements;
+    }
+
+    private static final class Count {
+        private boolean active;
+        private int statements;
+    }
+}
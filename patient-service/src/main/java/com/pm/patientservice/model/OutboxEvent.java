@@ -0,0 +1,127 @@
+package com.pm.patientservice.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A patient lifecycle event waiting to be relayed to downstream systems.
+ * Rows are inserted in the same transaction as the patient change and deleted once delivered.
+ */
+@Entity
+@Table(
+        name = "outbox_event",
+        indexes = {
+                // The relay only claims the oldest pending event of each patient
+                @Index(name = "idx_outbox_event_aggregate", columnList = "aggregate_id, aggregate_version")
+        })
+public class OutboxEvent {
+
+    // Sequence IDs give the relay its delivery order and, unlike IDENTITY, keep inserts batchable
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_event_seq")
+    @SequenceGenerator(name = "outbox_event_seq", sequenceName = "outbox_event_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private UUID aggregateId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 50)
+    private OutboxEventType eventType;
+
+    // JSON document describing the change
+    @Column(nullable = false, length = 4000)
+    private String payload;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    // Patient version the event was written at. Written under the patient's row lock, so unlike
+    // the id it orders one patient's events by commit, whichever instance wrote them
+    @Column(nullable = false)
+    private long aggregateVersion;
+
+    // Failed delivery attempts so far
+    @Column(nullable = false)
+    private int attempts;
+
+    // Leased to a relay, or backing off after a failure, until then; null if never claimed
+    private Instant claimedUntil;
+
+    // Set after outbox.relay.max-attempts failures; a parked event is no longer relayed
+    private Instant parkedAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public UUID getAggregateId() {
+        return aggregateId;
+    }
+
+    public void setAggregateId(UUID aggregateId) {
+        this.aggregateId = aggregateId;
+    }
+
+    public OutboxEventType getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(OutboxEventType eventType) {
+        this.eventType = eventType;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public long getAggregateVersion() {
+        return aggregateVersion;
+    }
+
+    public void setAggregateVersion(long aggregateVersion) {
+        this.aggregateVersion = aggregateVersion;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public Instant getClaimedUntil() {
+        return claimedUntil;
+    }
+
+    public void setClaimedUntil(Instant claimedUntil) {
+        this.claimedUntil = claimedUntil;
+    }
+
+    public Instant getParkedAt() {
+        return parkedAt;
+    }
+
+    public void setParkedAt(Instant parkedAt) {
+        this.parkedAt = parkedAt;
+    }
+}
@@ -0,0 +1,7 @@
+package com.pm.patientservice.model;
+
+public enum OutboxEventType {
+    PATIENT_CREATED,
+    PATIENT_UPDATED,
+    PATIENT_DELETED
+}
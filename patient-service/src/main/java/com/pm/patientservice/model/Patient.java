@@ -3,14 +3,31 @@ package com.pm.patientservice.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.time.LocalDate;
 import java.util.UUID;
 
 @Entity
+@Table(
+        indexes = {
+                // Backs keyset pagination and the ordered stream in PatientRepository
+                @Index(name = "idx_patient_registered_date_id", columnList = "registered_date, id"),
+                // Range filter of the patient search; its prefix match uses the Postgres trigram indexes
+                @Index(name = "idx_patient_date_of_birth", columnList = "date_of_birth")
+        },
+        uniqueConstraints = {
+                // The only uniqueness check on writes; PatientService maps violations to a 400
+                @UniqueConstraint(name = "uk_patient_email", columnNames = "email")
+        })
+// UPDATE statements list only the columns that actually changed
+@DynamicUpdate
 public class Patient {
+    // Time-ordered IDs assigned in the application; seeded rows keep their fixed UUIDs
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue
+    @UuidGenerator(algorithm = UuidV7Generator.class)
     private UUID id;
 
     @NotNull
@@ -18,7 +35,6 @@ public class Patient {
 
     @NotNull
     @Email
-    @Column(unique = true)
     private String email;
 
     @NotNull
@@ -30,6 +46,10 @@ public class Patient {
     @NotNull
     private LocalDate registeredDate;
 
+    // Optimistic locking: bumped by every update and checked in its WHERE clause
+    @Version
+    private Long version;
+
     public UUID getId() {
         return id;
     }
@@ -78,6 +98,14 @@ public class Patient {
         this.registeredDate = registeredDate;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
 
 
 
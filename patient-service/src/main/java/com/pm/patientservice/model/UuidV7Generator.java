@@ -0,0 +1,59 @@
+package com.pm.patientservice.model;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.uuid.UuidValueGenerator;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates time-ordered UUIDs in the version 7 layout (RFC 9562).
+ *
+ * The top 48 bits hold the Unix time in milliseconds and the next 12 bits are a counter
+ * that keeps IDs from the same millisecond strictly increasing, so new rows always land
+ * at the right-hand edge of the primary-key index instead of at random pages.
+ * IDs are assigned in the application, which leaves Hibernate free to batch the inserts.
+ */
+public class UuidV7Generator implements UuidValueGenerator {
+
+    private static final long VERSION_7 = 0x7000L;
+    private static final long VARIANT_IETF = 0x8000_0000_0000_0000L;
+    private static final long COUNTER_MASK = 0xFFFL;
+
+    // Last issued (millis << 12 | counter), shared by every thread in the JVM
+    private static final AtomicLong lastTimestampAndCounter = new AtomicLong();
+
+    @Override
+    public UUID generateUuid(SharedSessionContractImplementor session) {
+        return next();
+    }
+
+    public static UUID next() {
+        long timestampAndCounter = nextTimestampAndCounter(System.currentTimeMillis());
+
+        long mostSigBits = (timestampAndCounter >>> 12) << 16
+                | VERSION_7
+                | (timestampAndCounter & COUNTER_MASK);
+        long leastSigBits = VARIANT_IETF
+                | (ThreadLocalRandom.current().nextLong() >>> 2);
+
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    /**
+     * Moves to the current millisecond with a fresh counter, or bumps the counter when the
+     * clock has not moved (or went backwards). A counter overflow simply carries into the
+     * timestamp, which keeps the sequence monotonic.
+     */
+    private static long nextTimestampAndCounter(long nowMillis) {
+        long candidate = nowMillis << 12;
+        while (true) {
+            long last = lastTimestampAndCounter.get();
+            long next = candidate > last ? candidate : last + 1;
+            if (lastTimestampAndCounter.compareAndSet(last, next)) {
+                return next;
+            }
+        }
+    }
+}
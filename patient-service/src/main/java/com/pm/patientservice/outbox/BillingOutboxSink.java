@@ -0,0 +1,76 @@
+package com.pm.patientservice.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.patientservice.dto.PatientResponseDTO;
+import com.pm.patientservice.grpc.BillingServiceGrpcClient;
+import com.pm.patientservice.model.OutboxEvent;
+import com.pm.patientservice.model.OutboxEventType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Provisions a billing account for every created patient.
+ * Billing account creation is idempotent per patient, so redelivered events are harmless.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sink.billing.enabled", havingValue = "true", matchIfMissing = true)
+public class BillingOutboxSink implements OutboxSink {
+
+    private static final Logger log = LoggerFactory.getLogger(BillingOutboxSink.class);
+
+    // Upper bound for billing to acknowledge one relayed batch; keep below outbox.relay.lease
+    private static final long DELIVERY_TIMEOUT_SECONDS = 15;
+
+    private final BillingServiceGrpcClient billingServiceGrpcClient;
+    private final ObjectMapper objectMapper;
+
+    public BillingOutboxSink(BillingServiceGrpcClient billingServiceGrpcClient, ObjectMapper objectMapper) {
+        this.billingServiceGrpcClient = billingServiceGrpcClient;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public List<OutboxEvent> deliver(List<OutboxEvent> events) throws InterruptedException {
+        Map<OutboxEvent, CompletableFuture<Void>> results = new LinkedHashMap<>();
+        List<OutboxEvent> failed = new ArrayList<>();
+        for (OutboxEvent event : events) {
+            if (event.getEventType() != OutboxEventType.PATIENT_CREATED) {
+                continue;
+            }
+            try {
+                PatientResponseDTO patient = objectMapper.readValue(event.getPayload(), PatientResponseDTO.class);
+                results.put(event, billingServiceGrpcClient.createBillingAccount(
+                        patient.getId(), patient.getName(), patient.getEmail()));
+            } catch (JsonProcessingException ex) {
+                log.warn("Outbox event {} has an unreadable payload: {}", event.getId(), ex.getOriginalMessage());
+                failed.add(event);
+            }
+        }
+
+        // The client batches these into a few streams; wait for all of them, then sort out which failed
+        try {
+            CompletableFuture.allOf(results.values().toArray(CompletableFuture[]::new))
+                    .get(DELIVERY_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException | TimeoutException ex) {
+            log.debug("Not every billing account of the batch was acknowledged: {}", ex.toString());
+        }
+        results.forEach((event, result) -> {
+            if (!result.isDone() || result.isCompletedExceptionally()) {
+                failed.add(event);
+            }
+        });
+        return failed;
+    }
+}
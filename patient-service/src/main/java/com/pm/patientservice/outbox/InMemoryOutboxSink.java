@@ -0,0 +1,50 @@
+package com.pm.patientservice.outbox;
+
+import com.pm.patientservice.model.OutboxEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+
+/**
+ * Keeps every delivered event in memory. Meant for tests and local runs
+ * (outbox.sink.in-memory.enabled=true).
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sink.in-memory.enabled", havingValue = "true")
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private final List<OutboxEvent> delivered = new CopyOnWriteArrayList<>();
+
+    // Events matching this are refused, to try out retries and parking
+    private volatile Predicate<OutboxEvent> failing = event -> false;
+
+    @Override
+    public List<OutboxEvent> deliver(List<OutboxEvent> events) {
+        List<OutboxEvent> failed = new ArrayList<>();
+        for (OutboxEvent event : events) {
+            if (failing.test(event)) {
+                failed.add(event);
+            } else {
+                delivered.add(event);
+            }
+        }
+        return failed;
+    }
+
+    public void failWhen(Predicate<OutboxEvent> failing) {
+        this.failing = failing;
+    }
+
+    public List<OutboxEvent> getDelivered() {
+        return List.copyOf(delivered);
+    }
+
+    public void clear() {
+        delivered.clear();
+        failing = event -> false;
+    }
+}
@@ -0,0 +1,300 @@
+package com.pm.patientservice.outbox;
+
+import com.pm.patientservice.model.OutboxEvent;
+import com.pm.patientservice.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background relay that drains the outbox table into the registered sinks.
+ *
+ * Each round claims the oldest batch of events that are due: a short transaction locks them
+ * and leases them to this relay for outbox.relay.lease. They are then handed to every sink
+ * outside any transaction, so a slow sink holds neither a connection nor row locks. Delivered
+ * events are deleted; a failed event is retried on its own with exponential back-off and
+ * parked after outbox.relay.max-attempts, so it cannot hold up the events behind it. If a
+ * relay dies mid-round, its lease runs out and another relay delivers the batch again, which
+ * gives at-least-once delivery.
+ *
+ * Only the oldest pending event of each patient is ever claimed, ordered by the patient
+ * version it was written at. A patient's events therefore reach the sinks in commit order,
+ * even with several instances writing and relaying. A parked event holds back the later
+ * events of its patient until it is requeued or removed.
+ *
+ * Strategy: the relay always polls every outbox.relay.poll-interval. With
+ * outbox.relay.notify-on-commit it is also woken as soon as a transaction that wrote
+ * events commits, so delivery does not wait for the next poll.
+ */
+@Component
+public class OutboxRelay implements SmartLifecycle, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<OutboxSink> sinks;
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final boolean notifyOnCommit;
+    private final Duration lease;
+    private final Duration retryBackoff;
+    private final Duration maxBackoff;
+    private final int maxAttempts;
+
+    // Permits are wake-up signals; they coalesce, so a burst of commits causes one extra round
+    private final Semaphore wakeUp = new Semaphore(0);
+
+    private final AtomicLong deliveredEvents = new AtomicLong();
+    private final AtomicLong failedDeliveries = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    private volatile Thread worker;
+    private volatile boolean running;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, List<OutboxSink> sinks,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${outbox.relay.enabled:true}") boolean enabled,
+                       @Value("${outbox.relay.batch-size:100}") int batchSize,
+                       @Value("${outbox.relay.poll-interval:1s}") Duration pollInterval,
+                       @Value("${outbox.relay.notify-on-commit:true}") boolean notifyOnCommit,
+                       @Value("${outbox.relay.lease:1m}") Duration lease,
+                       @Value("${outbox.relay.retry-backoff:1s}") Duration retryBackoff,
+                       @Value("${outbox.relay.max-backoff:5m}") Duration maxBackoff,
+                       @Value("${outbox.relay.max-attempts:20}") int maxAttempts) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sinks = sinks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+        this.notifyOnCommit = notifyOnCommit;
+        this.lease = lease;
+        this.retryBackoff = retryBackoff;
+        this.maxBackoff = maxBackoff;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Called after a transaction that wrote outbox events has committed.
+     */
+    void notifyCommitted() {
+        if (notifyOnCommit && wakeUp.availablePermits() == 0) {
+            wakeUp.release();
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                int relayed = relayBatch();
+                if (relayed < 0) {
+                    // The database failed: back off for a full interval, new commits do not cut it short
+                    Thread.sleep(pollInterval.toMillis());
+                    wakeUp.drainPermits();
+                } else if (relayed < batchSize) {
+                    // Outbox drained: sleep until notified or the poll interval elapses
+                    wakeUp.tryAcquire(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                    wakeUp.drainPermits();
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Relay one batch of events.
+     * 1. Claim the events that are due, in a short transaction of their own.
+     * 2. Offer them to every sink, outside any transaction.
+     * 3. Delete the delivered events; schedule a retry for the others, or park them.
+     *
+     * @return number of events claimed, 0 when none was due, -1 when the database failed
+     */
+    int relayBatch() throws InterruptedException {
+        List<OutboxEvent> batch;
+        try {
+            batch = claim();
+        } catch (RuntimeException ex) {
+            log.warn("Outbox relay could not claim events, retrying in {}: {}", pollInterval, ex.toString());
+            return -1;
+        }
+        if (batch.isEmpty()) {
+            lagMillis.set(0);
+            return 0;
+        }
+        lagMillis.set(Duration.between(batch.get(0).getCreatedAt(), Instant.now()).toMillis());
+
+        Set<OutboxEvent> failed = new HashSet<>();
+        for (OutboxSink sink : sinks) {
+            try {
+                failed.addAll(sink.deliver(batch));
+            } catch (InterruptedException ex) {
+                // Shutting down: the lease runs out and the batch is delivered again
+                throw ex;
+            } catch (Exception ex) {
+                log.warn("Sink {} failed a batch of {} events: {}",
+                        sink.getClass().getSimpleName(), batch.size(), ex.toString());
+                failed.addAll(batch);
+            }
+        }
+
+        List<Long> delivered = batch.stream().filter(event -> !failed.contains(event)).map(OutboxEvent::getId).toList();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                outboxEventRepository.deleteAllByIdInBatch(delivered);
+                if (!failed.isEmpty()) {
+                    outboxEventRepository.saveAll(failed.stream().map(this::retryOrPark).toList());
+                }
+            });
+        } catch (RuntimeException ex) {
+            // Nothing is lost: once the lease runs out the whole batch is delivered again
+            log.warn("Outbox relay could not record delivery, retrying in {}: {}", pollInterval, ex.toString());
+            return -1;
+        }
+
+        deliveredEvents.addAndGet(delivered.size());
+        failedDeliveries.addAndGet(failed.size());
+        return batch.size();
+    }
+
+    // Lock the due events and lease them, so other relays skip them once this transaction commits
+    private List<OutboxEvent> claim() {
+        return transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            List<OutboxEvent> due = outboxEventRepository.findDueForDelivery(now, Limit.of(batchSize));
+            if (!due.isEmpty()) {
+                outboxEventRepository.claim(due.stream().map(OutboxEvent::getId).toList(), now.plus(lease));
+            }
+            return due;
+        });
+    }
+
+    private OutboxEvent retryOrPark(OutboxEvent event) {
+        int attempts = event.getAttempts() + 1;
+        event.setAttempts(attempts);
+        if (attempts >= maxAttempts) {
+            event.setParkedAt(Instant.now());
+            log.error("Outbox event {} ({} of patient {}) parked after {} failed attempts",
+                    event.getId(), event.getEventType(), event.getAggregateId(), attempts);
+        } else {
+            // 1, 2, 4, ... times retry-backoff, at most max-backoff
+            Duration backoff = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+            event.setClaimedUntil(Instant.now().plus(backoff.compareTo(maxBackoff) < 0 ? backoff : maxBackoff));
+        }
+        return event;
+    }
+
+    /**
+     * Events delivered to all sinks since startup.
+     */
+    public long getDeliveredEvents() {
+        return deliveredEvents.get();
+    }
+
+    /**
+     * Event deliveries that failed and were scheduled for a retry or parked.
+     */
+    public long getFailedDeliveries() {
+        return failedDeliveries.get();
+    }
+
+    /**
+     * Age of the oldest event seen in the last round, 0 when the outbox was empty.
+     */
+    public long getLagMillis() {
+        return lagMillis.get();
+    }
+
+    /**
+     * Number of events waiting in the outbox table to be delivered.
+     */
+    public long getBacklog() {
+        return outboxEventRepository.countByParkedAtIsNull();
+    }
+
+    /**
+     * Number of parked events in the outbox table, across all relays.
+     */
+    public long getParkedBacklog() {
+        return outboxEventRepository.countByParkedAtIsNotNull();
+    }
+
+    /**
+     * Publishes the counters above as outbox.relay.* meters.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("outbox.relay.delivered", deliveredEvents, AtomicLong::get)
+                .description("Outbox events delivered to all sinks")
+                .register(registry);
+        FunctionCounter.builder("outbox.relay.failures", failedDeliveries, AtomicLong::get)
+                .description("Event deliveries that failed and were retried later or parked")
+                .register(registry);
+        TimeGauge.builder("outbox.relay.lag", lagMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("Age of the oldest event in the last relay round")
+                .register(registry);
+        // These cost a count query per scrape, not per event
+        Gauge.builder("outbox.relay.backlog", this, OutboxRelay::getBacklog)
+                .description("Events waiting in the outbox table")
+                .register(registry);
+        Gauge.builder("outbox.relay.parked", this, OutboxRelay::getParkedBacklog)
+                .description("Events parked after too many failed deliveries")
+                .register(registry);
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            log.info("Outbox relay disabled");
+            return;
+        }
+        running = true;
+        worker = new Thread(this::run, "outbox-relay");
+        worker.setDaemon(true);
+        worker.start();
+        log.info("Outbox relay started with {} sink(s), batch size {}, poll interval {}",
+                sinks.size(), batchSize, pollInterval);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread current = worker;
+        if (current != null) {
+            current.interrupt();
+            try {
+                current.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
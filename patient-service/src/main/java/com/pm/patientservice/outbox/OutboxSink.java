@@ -0,0 +1,22 @@
+package com.pm.patientservice.outbox;
+
+import com.pm.patientservice.model.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Destination of relayed outbox events.
+ *
+ * A batch holds at most one event per patient, and a patient's events are offered in the
+ * order they were committed, each only after the previous one was delivered. A sink returns
+ * the events it could not deliver, or throws to fail the whole batch. Failed events stay in
+ * the outbox and are offered again later, so sinks see every event at least once and must
+ * tolerate duplicates.
+ */
+public interface OutboxSink {
+
+    /**
+     * @return the events that were not delivered, empty if all were
+     */
+    List<OutboxEvent> deliver(List<OutboxEvent> events) throws Exception;
+}
@@ -0,0 +1,99 @@
+package com.pm.patientservice.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.patientservice.mapper.PatientMapper;
+import com.pm.patientservice.model.OutboxEvent;
+import com.pm.patientservice.model.OutboxEventType;
+import com.pm.patientservice.model.Patient;
+import com.pm.patientservice.repository.OutboxEventRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Records patient lifecycle events in the outbox table.
+ * Must run inside the transaction that changes the patient, so the event is committed
+ * (or rolled back) together with the change.
+ */
+@Component
+public class OutboxWriter {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxRelay outboxRelay;
+    private final ObjectMapper objectMapper;
+
+    public OutboxWriter(OutboxEventRepository outboxEventRepository, OutboxRelay outboxRelay,
+                        ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxRelay = outboxRelay;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void patientCreated(Patient patient) {
+        append(OutboxEventType.PATIENT_CREATED, patient.getId(), patient.getVersion(), PatientMapper.toDTO(patient));
+    }
+
+    /**
+     * Same as {@link #patientCreated(Patient)} for many patients, saved as one JDBC batch.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void patientsCreated(List<Patient> patients) {
+        outboxEventRepository.saveAll(patients.stream()
+                .map(patient -> newEvent(OutboxEventType.PATIENT_CREATED, patient.getId(), patient.getVersion(),
+                        PatientMapper.toDTO(patient)))
+                .toList());
+        wakeRelayAfterCommit();
+    }
+
+    /**
+     * Must be called after the update was flushed, so the event carries the new version.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void patientUpdated(Patient patient) {
+        append(OutboxEventType.PATIENT_UPDATED, patient.getId(), patient.getVersion(), PatientMapper.toDTO(patient));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void patientDeleted(UUID patientId) {
+        // Nothing can follow a delete, so it sorts after every other event of the patient
+        append(OutboxEventType.PATIENT_DELETED, patientId, Long.MAX_VALUE, Map.of("id", patientId.toString()));
+    }
+
+    private void append(OutboxEventType type, UUID aggregateId, Long aggregateVersion, Object payload) {
+        outboxEventRepository.save(newEvent(type, aggregateId, aggregateVersion, payload));
+        wakeRelayAfterCommit();
+    }
+
+    private OutboxEvent newEvent(OutboxEventType type, UUID aggregateId, Long aggregateVersion, Object payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setAggregateId(aggregateId);
+        event.setAggregateVersion(aggregateVersion == null ? 0 : aggregateVersion);
+        event.setEventType(type);
+        event.setCreatedAt(Instant.now());
+        try {
+            event.setPayload(objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize outbox payload for " + aggregateId, ex);
+        }
+        return event;
+    }
+
+    // With the notify strategy the relay picks the event up right after commit instead of on its next poll
+    private void wakeRelayAfterCommit() {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                outboxRelay.notifyCommitted();
+            }
+        });
+    }
+}
@@ -0,0 +1,23 @@
+package com.pm.patientservice.protobuf;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.protobuf.ProtobufHttpMessageConverter;
+
+/**
+ * Lets controllers return protobuf messages (see src/main/proto/patient.proto) for clients
+ * that send Accept: application/x-protobuf. JSON stays the default for everyone else.
+ */
+@Configuration
+public class ProtobufConfig {
+
+    public static final String APPLICATION_PROTOBUF_VALUE = "application/x-protobuf";
+
+    public static final MediaType APPLICATION_PROTOBUF = MediaType.parseMediaType(APPLICATION_PROTOBUF_VALUE);
+
+    @Bean
+    public ProtobufHttpMessageConverter protobufHttpMessageConverter() {
+        return new ProtobufHttpMessageConverter();
+    }
+}
@@ -0,0 +1,54 @@
+package com.pm.patientservice.repository;
+
+import com.pm.patientservice.model.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+/**
+ * Events due for delivery, oldest first, locked for the calling transaction. An event is due
+ * when it is not parked, not leased to a relay or backing off, and the oldest pending event of
+ * its patient, so a patient's next event waits until the previous one has been delivered.
+ * Rows already locked by another relay instance are skipped (lock timeout -2 = SKIP LOCKED),
+ * so several instances can claim side by side.
+ */
+@Lock(LockModeType.PESSIMISTIC_WRITE)
+@QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+@Query("""
+        select e from OutboxEvent e
+        where e.parkedAt is null
+          and (e.claimedUntil is null or e.claimedUntil < :now)
+          and not exists (
+              select earlier.id from OutboxEvent earlier
+              where earlier.aggregateId = e.aggregateId
+                and (earlier.aggregateVersion < e.aggregateVersion
+                     or (earlier.aggregateVersion = e.aggregateVersion and earlier.id < e.id)))
+        order by e.id asc
+        """)
+List<OutboxEvent> findDueForDelivery(Instant now, Limit limit);
+
+/**
+ * Lease the given events to the calling relay until the given time.
+ */
+@Modifying
+@Query("update OutboxEvent e set e.claimedUntil = :until where e.id in :ids")
+int claim(Collection<Long> ids, Instant until);
+
+long countByParkedAtIsNull();
+
+long countByParkedAtIsNotNull();
+
+}
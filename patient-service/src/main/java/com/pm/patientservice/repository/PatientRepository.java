@@ -1,15 +1,83 @@
 package com.pm.patientservice.repository;
 
+import com.pm.patientservice.dto.PatientSummaryDTO;
 import com.pm.patientservice.model.Patient;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface PatientRepository extends JpaRepository<Patient, UUID> {
+public interface PatientRepository extends JpaRepository<Patient, UUID>, JpaSpecificationExecutor<Patient> {
 
-boolean existsByEmail(String email);
-boolean existsByEmailAndIdNot(String email,UUID id);
+/**
+ * Which of the given emails are already registered, in a single query.
+ */
+@Query("select p.email from Patient p where p.email in :emails")
+List<String> findExistingEmails(Collection<String> emails);
+
+/**
+ * Delete the patient in a single statement; returns 0 when there was none to delete.
+ */
+@Modifying
+@Query("delete from Patient p where p.id = :id")
+int deletePatientById(UUID id);
+
+/**
+ * First page of the keyset ordering (registeredDate, id).
+ */
+List<Patient> findAllByOrderByRegisteredDateAscIdAsc(Limit limit);
+
+/**
+ * Next page after the given key. Uses the (registered_date, id) index instead of OFFSET,
+ * so every page costs the same no matter how deep the client has paged.
+ */
+@Query("""
+        select p from Patient p
+        where p.registeredDate > :registeredDate
+           or (p.registeredDate = :registeredDate and p.id > :id)
+        order by p.registeredDate asc, p.id asc
+        """)
+List<Patient> findPageAfter(LocalDate registeredDate, UUID id, Limit limit);
+
+/**
+ * Every patient as a read-only projection; nothing enters the persistence context.
+ */
+@Query("""
+        select new com.pm.patientservice.dto.PatientSummaryDTO(p.id, p.name, p.email, p.address, p.dateOfBirth)
+        from Patient p
+        """)
+List<PatientSummaryDTO> findAllSummaries();
+
+/**
+ * Streams every patient projection over a server-side cursor. Must be consumed inside
+ * a transaction and closed afterwards.
+ */
+@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+@Query("""
+        select new com.pm.patientservice.dto.PatientSummaryDTO(p.id, p.name, p.email, p.address, p.dateOfBirth)
+        from Patient p
+        order by p.registeredDate asc, p.id asc
+        """)
+Stream<PatientSummaryDTO> streamAllSummaries();
+
+/**
+ * Streams every registered email, read with a large fetch size to fill the email filter.
+ * Must be consumed inside a transaction and closed afterwards.
+ */
+@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"))
+@Query("select p.email from Patient p")
+Stream<String> streamAllEmails();
 
 }
@@ -0,0 +1,56 @@
+package com.pm.patientservice.repository;
+
+import com.pm.patientservice.model.Patient;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Building blocks for patient search queries. Each criterion is only added when the
+ * caller supplied it, so the database plans the exact query it runs.
+ */
+public final class PatientSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private PatientSpecifications() {
+    }
+
+    /**
+     * Case-insensitive prefix match on name or email. On Postgres this is served by the
+     * trigram indexes in db/postgresql/patient-search-indexes.sql.
+     */
+    public static Specification<Patient> nameOrEmailStartsWith(String prefix) {
+        String pattern = escapeLike(prefix.toLowerCase(Locale.ROOT)) + "%";
+        return (root, query, cb) -> cb.or(
+                cb.like(cb.lower(root.get("name")), pattern, LIKE_ESCAPE),
+                cb.like(cb.lower(root.get("email")), pattern, LIKE_ESCAPE));
+    }
+
+    public static Specification<Patient> dateOfBirthBetween(LocalDate from, LocalDate to) {
+        return between("dateOfBirth", from, to);
+    }
+
+    public static Specification<Patient> registeredDateBetween(LocalDate from, LocalDate to) {
+        return between("registeredDate", from, to);
+    }
+
+    // Inclusive range; either bound may be open
+    private static Specification<Patient> between(String attribute, LocalDate from, LocalDate to) {
+        return (root, query, cb) -> {
+            if (from != null && to != null) {
+                return cb.between(root.get(attribute), from, to);
+            }
+            if (from != null) {
+                return cb.greaterThanOrEqualTo(root.get(attribute), from);
+            }
+            return cb.lessThanOrEqualTo(root.get(attribute), to);
+        };
+    }
+
+    // Typed characters must not act as LIKE wildcards
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,106 @@
+package com.pm.patientservice.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter of strings, safe for concurrent adds and lookups.
+ *
+ * The bit array is sized for an expected number of entries at a target false-positive
+ * rate: m = -n ln p / (ln 2)^2 bits and k = (m / n) ln 2 hash functions, derived by double
+ * hashing from one 64-bit hash. 10M entries at 1% take 95.9M bits (about 12 MB) and k = 7.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    // Adds since creation, including repeats; drives the false-positive estimate
+    private final AtomicLong insertions = new AtomicLong();
+
+    public BloomFilter(long expectedEntries, double falsePositiveRate) {
+        this.bitCount = optimalBitCount(expectedEntries, falsePositiveRate);
+        this.hashCount = optimalHashCount(expectedEntries, bitCount);
+        this.bits = new AtomicLongArray(Math.toIntExact(bitCount / 64));
+    }
+
+    /**
+     * Bits needed for n entries at false-positive rate p, rounded up to whole 64-bit words.
+     */
+    static long optimalBitCount(long expectedEntries, double falsePositiveRate) {
+        long bits = (long) Math.ceil(-expectedEntries * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        return Math.max(64, (bits + 63) / 64 * 64);
+    }
+
+    /**
+     * Hash functions minimizing the false-positive rate for the given size.
+     */
+    static int optimalHashCount(long expectedEntries, long bitCount) {
+        return Math.max(1, (int) Math.round((double) bitCount / Math.max(1, expectedEntries) * Math.log(2)));
+    }
+
+    public void add(String value) {
+        long hash1 = hash(value);
+        long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            // Most bits are already set once the filter fills up; skip the CAS for those
+            if ((bits.get(word) & mask) == 0) {
+                bits.getAndAccumulate(word, mask, (current, m) -> current | m);
+            }
+        }
+        insertions.incrementAndGet();
+    }
+
+    /**
+     * @return false if the value was certainly never added, true if it may have been
+     */
+    public boolean mightContain(String value) {
+        long hash1 = hash(value);
+        long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // FNV-1a over the UTF-16 code units, then the MurmurHash3 finalizer for avalanche
+    private static long hash(String value) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    public long memoryBytes() {
+        return (long) bits.length() * Long.BYTES;
+    }
+
+    public int hashCount() {
+        return hashCount;
+    }
+
+    /**
+     * Expected false-positive rate for what has been added so far: (1 - e^(-k n / m))^k.
+     */
+    public double expectedFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-(double) hashCount * insertions.get() / bitCount), hashCount);
+    }
+}
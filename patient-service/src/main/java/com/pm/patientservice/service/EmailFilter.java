@@ -0,0 +1,133 @@
+package com.pm.patientservice.service;
+
+import com.pm.patientservice.repository.PatientRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Registered patient emails in a {@link BloomFilter}, used to skip the database lookup
+ * for emails that are certainly new.
+ *
+ * mightContain() never answers false for an email that was added, so false means "not
+ * registered, as far as this instance has seen" and the lookup can be skipped. True may be
+ * a false positive, and the database is asked as before. Emails registered by another
+ * instance are missing here; the unique constraint on patient.email still rejects those,
+ * so the filter only ever saves queries.
+ *
+ * Emails are never removed (a Bloom filter cannot delete). Deleted or changed emails stay
+ * in as false positives until the next restart rebuilds the filter from patient.email.
+ */
+@Component
+public class EmailFilter implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailFilter.class);
+
+    private final PatientRepository patientRepository;
+    private final TransactionTemplate readOnly;
+    private final BloomFilter filter;
+
+    private final AtomicLong checks = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+
+    // Until the initial load has finished every email "might" be registered
+    private volatile boolean loaded;
+
+    public EmailFilter(PatientRepository patientRepository, PlatformTransactionManager transactionManager,
+                       @Value("${patient.email-filter.expected-emails:1000000}") long expectedEmails,
+                       @Value("${patient.email-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.patientRepository = patientRepository;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.filter = new BloomFilter(expectedEmails, falsePositiveRate);
+    }
+
+    /**
+     * Fill the filter from patient.email once the application is up, on a background thread
+     * so a large table does not delay startup. Writes that happen meanwhile are added too.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInBackground() {
+        Thread loader = new Thread(this::load, "email-filter-load");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    void load() {
+        long started = System.nanoTime();
+        try {
+            long count = readOnly.execute(status -> {
+                try (Stream<String> emails = patientRepository.streamAllEmails()) {
+                    long added = 0;
+                    for (String email : (Iterable<String>) emails::iterator) {
+                        filter.add(email);
+                        added++;
+                    }
+                    return added;
+                }
+            });
+            loaded = true;
+            log.info("Email filter loaded {} emails in {} ms ({} KB, {} hash functions)", count,
+                    (System.nanoTime() - started) / 1_000_000, filter.memoryBytes() / 1024, filter.hashCount());
+        } catch (RuntimeException ex) {
+            // Stays unloaded: every email is checked against the database as without the filter
+            log.warn("Email filter could not be loaded, falling back to database checks: {}", ex.toString());
+        }
+    }
+
+    /**
+     * Record a registered email. Safe to call before the transaction commits: an email
+     * whose insert is rolled back only becomes a false positive.
+     */
+    public void add(String email) {
+        filter.add(email);
+    }
+
+    /**
+     * @return false if the email is certainly not registered, true if it may be
+     */
+    public boolean mightContain(String email) {
+        checks.incrementAndGet();
+        if (!loaded || filter.mightContain(email)) {
+            return true;
+        }
+        skipped.incrementAndGet();
+        return false;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Publishes size, expected false-positive rate and check counters as patient.email.filter.*.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("patient.email.filter.memory", filter, BloomFilter::memoryBytes)
+                .baseUnit("bytes")
+                .description("Size of the email filter's bit array")
+                .register(registry);
+        Gauge.builder("patient.email.filter.false.positive.rate", filter, BloomFilter::expectedFalsePositiveRate)
+                .description("Expected false-positive rate at the current fill")
+                .register(registry);
+        FunctionCounter.builder("patient.email.filter.checks", checks, AtomicLong::get)
+                .description("Email existence checks made against the filter")
+                .register(registry);
+        FunctionCounter.builder("patient.email.filter.skipped", skipped, AtomicLong::get)
+                .description("Checks answered by the filter without a database lookup")
+                .register(registry);
+    }
+}
@@ -0,0 +1,88 @@
+package com.pm.patientservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.pm.patientservice.dto.PatientResponseDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of patient responses keyed by patient ID.
+ * Entries are evicted by size and by age; writes in PatientService invalidate them.
+ * Only found patients are cached, so a lookup of an unknown ID always reaches the database.
+ */
+@Component
+public class PatientCache implements MeterBinder {
+
+    private final Cache<UUID, PatientResponseDTO> cache;
+
+    public PatientCache(@Value("${patient.cache.maximum-size:10000}") long maximumSize,
+                        @Value("${patient.cache.ttl:PT5M}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached patient or loads it with the given loader.
+     * Concurrent lookups of the same ID share a single load.
+     */
+    public Optional<PatientResponseDTO> get(UUID id, Function<UUID, Optional<PatientResponseDTO>> loader) {
+        return Optional.ofNullable(cache.get(id, key -> loader.apply(key).orElse(null)));
+    }
+
+    public boolean contains(UUID id) {
+        return cache.getIfPresent(id) != null;
+    }
+
+    /**
+     * Drops the entry for the given ID. Waits for an in-flight load of the same ID,
+     * so a value read before a write can never land in the cache after it.
+     * Inside a transaction the entry is dropped again after completion, since a reader
+     * may have cached the old row between this call and the commit.
+     */
+    public void invalidate(UUID id) {
+        cache.invalidate(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(id);
+                }
+            });
+        }
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Hit, miss and eviction counters since startup.
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * Publishes size, hit/miss and eviction counters as cache.* meters tagged cache=patients.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new CaffeineCacheMetrics<>(cache, "patients", Tags.empty()).bindTo(registry);
+    }
+}
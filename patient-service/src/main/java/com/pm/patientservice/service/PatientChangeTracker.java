@@ -0,0 +1,82 @@
+package com.pm.patientservice.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+
+/**
+ * Table-level change counter for the patient table, used as the validator of conditional
+ * GETs on patient collections. Every write bumps the generation in the one-row table
+ * patient_change_counter, so an unchanged table can be answered with 304 Not Modified after
+ * a single primary-key lookup, without reading or serializing any patients.
+ *
+ * The counter lives in the database, so writes made through any instance are seen at once.
+ * The bump is the last statement of the writing transaction: concurrent writers queue on the
+ * counter row only for the duration of their commit.
+ */
+@Component
+public class PatientChangeTracker {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PatientChangeTracker(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Record a change of the patient table. Inside a transaction the generation moves on
+     * just before commit and in the same transaction, so a reader can never pair the new
+     * generation with the old rows.
+     */
+    public void changed() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    bump();
+                }
+            });
+        } else {
+            bump();
+        }
+    }
+
+    /**
+     * The current version of the patient table. Take it before reading the rows and in the
+     * same transaction: the rows are then at least as new as the version, and a write that
+     * commits in between produces a newer version, so the next request gets a full answer.
+     */
+    public Snapshot current() {
+        return jdbcTemplate.queryForObject(
+                "SELECT generation, changed_at FROM patient_change_counter WHERE id = 1",
+                (rs, rowNum) -> new Snapshot(rs.getLong(1), wholeSeconds(rs.getTimestamp(2).getTime())));
+    }
+
+    private void bump() {
+        jdbcTemplate.update(
+                "UPDATE patient_change_counter SET generation = generation + 1, changed_at = ? WHERE id = 1",
+                new Timestamp(System.currentTimeMillis()));
+    }
+
+    private static long wholeSeconds(long millis) {
+        return millis - Math.floorMod(millis, 1000);
+    }
+
+    /**
+     * @param generation   number of committed changes to the patient table
+     * @param lastModified Last-Modified value in epoch millis, whole seconds. Two changes within
+     *                     one second share it, so only If-None-Match with the ETag is exact
+     */
+    public record Snapshot(long generation, long lastModified) {
+
+        /**
+         * Weak, since the same version is served as JSON, protobuf and compressed bodies.
+         */
+        public String eTag() {
+            return "W/\"" + generation + "\"";
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.pm.patientservice.service;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Recognises database constraint violations raised by patient writes.
+ */
+final class PatientConstraints {
+
+    private PatientConstraints() {
+    }
+
+    // Unique violation, reported the same way by Postgres and H2
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    // Named by the entity mapping and schema.sql; schemas created earlier carry Postgres' generated name
+    private static final Set<String> EMAIL_UNIQUE_CONSTRAINTS = Set.of("uk_patient_email", "patient_email_key");
+
+    /**
+     * True when the violation is a unique violation of the index on patient.email: SQLState
+     * 23505 and one of the index's known names. Other constraints that merely mention email
+     * are not mistaken for it.
+     */
+    static boolean isEmailUniqueViolation(DataIntegrityViolationException ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return UNIQUE_VIOLATION.equals(violation.getSQLState())
+                        && isEmailUniqueConstraint(violation.getConstraintName());
+            }
+        }
+        return false;
+    }
+
+    // Postgres reports the constraint itself; H2 the index behind it, e.g. PUBLIC.UK_PATIENT_EMAIL_INDEX_F
+    private static boolean isEmailUniqueConstraint(String name) {
+        if (name == null) {
+            return false;
+        }
+        String unqualified = name.substring(name.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+        return EMAIL_UNIQUE_CONSTRAINTS.stream().anyMatch(constraint ->
+                unqualified.equals(constraint) || unqualified.startsWith(constraint + "_index_"));
+    }
+}
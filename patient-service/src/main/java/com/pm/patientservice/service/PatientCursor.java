@@ -0,0 +1,44 @@
+package com.pm.patientservice.service;
+
+import com.pm.patientservice.exception.InvalidCursorException;
+import com.pm.patientservice.model.Patient;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position of the last patient on a page, ordered by (registeredDate, id).
+ * Clients only ever see the Base64 token, so the key layout can change without breaking them.
+ */
+record PatientCursor(LocalDate registeredDate, UUID id) {
+
+    private static final char SEPARATOR = '|';
+
+    static PatientCursor of(Patient patient) {
+        return new PatientCursor(patient.getRegisteredDate(), patient.getId());
+    }
+
+    String encode() {
+        String raw = registeredDate.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static PatientCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int split = raw.indexOf(SEPARATOR);
+            if (split < 0) {
+                throw new InvalidCursorException("Malformed cursor: " + token);
+            }
+            return new PatientCursor(
+                    LocalDate.parse(raw.substring(0, split)),
+                    UUID.fromString(raw.substring(split + 1)));
+        } catch (IllegalArgumentException | DateTimeException ex) {
+            throw new InvalidCursorException("Malformed cursor: " + token);
+        }
+    }
+}
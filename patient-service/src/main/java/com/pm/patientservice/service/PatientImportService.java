@@ -0,0 +1,255 @@
+package com.pm.patientservice.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.pm.patientservice.changefeed.PatientChangeFeed;
+import com.pm.patientservice.dto.PatientImportResultDTO;
+import com.pm.patientservice.dto.PatientImportRowResultDTO;
+import com.pm.patientservice.dto.PatientImportRowResultDTO.Status;
+import com.pm.patientservice.dto.PatientRequestDTO;
+import com.pm.patientservice.dto.validators.CreatePatientValidationGroup;
+import com.pm.patientservice.exception.InvalidImportException;
+import com.pm.patientservice.mapper.PatientMapper;
+import com.pm.patientservice.model.Patient;
+import com.pm.patientservice.outbox.OutboxWriter;
+import com.pm.patientservice.repository.PatientRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import jakarta.validation.groups.Default;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Imports many patients from a single request body.
+ *
+ * Rows are read one at a time from a JSON array, NDJSON or CSV stream, validated with the
+ * same constraints as POST /patients and collected into chunks. Each chunk costs one
+ * query for email uniqueness and one batched insert, instead of two round-trips per row.
+ * Every chunk commits on its own, so a large import never holds one long transaction.
+ */
+@Service
+@Timed(value = "patient.service", histogram = true)
+public class PatientImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(PatientImportService.class);
+
+    public static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    // Matches hibernate.jdbc.batch_size so each chunk is flushed as whole JDBC batches
+    static final int CHUNK_SIZE = 500;
+
+    private final PatientRepository patientRepository;
+    private final PatientChangeTracker changeTracker;
+    private final PatientChangeFeed changeFeed;
+    private final EmailFilter emailFilter;
+    private final OutboxWriter outboxWriter;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectReader jsonReader;
+    private final ObjectReader csvReader;
+
+    public PatientImportService(PatientRepository patientRepository, PatientChangeTracker changeTracker,
+                                PatientChangeFeed changeFeed, EmailFilter emailFilter, OutboxWriter outboxWriter,
+                                Validator validator, PlatformTransactionManager transactionManager,
+                                ObjectMapper objectMapper) {
+        this.patientRepository = patientRepository;
+        this.changeTracker = changeTracker;
+        this.changeFeed = changeFeed;
+        this.emailFilter = emailFilter;
+        this.outboxWriter = outboxWriter;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jsonReader = objectMapper.readerFor(PatientRequestDTO.class);
+        this.csvReader = new CsvMapper().readerFor(PatientRequestDTO.class)
+                .with(CsvSchema.emptySchema().withHeader())
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    /**
+     * Import every row of the given body.
+     * 1. Parse rows lazily according to the content type.
+     * 2. Validate each row and reject emails repeated within the import.
+     * 3. Every CHUNK_SIZE rows, check emails against the DB in one query and batch-insert the rest.
+     * 4. Return one result per row.
+     */
+    public PatientImportResultDTO importPatients(InputStream body, MediaType contentType) {
+        ObjectReader reader = TEXT_CSV.isCompatibleWith(contentType) ? csvReader : jsonReader;
+
+        List<PatientImportRowResultDTO> results = new ArrayList<>();
+        List<PendingRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        Set<String> seenEmails = new HashSet<>();
+        int rowNumber = 0;
+
+        try (MappingIterator<PatientRequestDTO> rows = reader.readValues(body)) {
+            while (rows.hasNextValue()) {
+                rowNumber++;
+                PatientRequestDTO request = rows.nextValue();
+
+                Map<String, String> errors = validate(request);
+                if (!errors.isEmpty()) {
+                    results.add(new PatientImportRowResultDTO(rowNumber, Status.INVALID, null, errors));
+                    continue;
+                }
+
+                if (!seenEmails.add(request.getEmail())) {
+                    results.add(duplicate(rowNumber));
+                    continue;
+                }
+
+                Patient patient;
+                try {
+                    patient = PatientMapper.toModel(request);
+                } catch (DateTimeParseException ex) {
+                    results.add(new PatientImportRowResultDTO(rowNumber, Status.INVALID, null,
+                            Map.of("date", "Dates must use the yyyy-MM-dd format")));
+                    continue;
+                }
+
+                chunk.add(new PendingRow(rowNumber, patient));
+                if (chunk.size() == CHUNK_SIZE) {
+                    results.addAll(insertChunk(chunk));
+                    chunk.clear();
+                }
+            }
+        } catch (RuntimeJsonMappingException | IOException ex) {
+            // Rows of earlier chunks are already committed; say where parsing stopped
+            throw new InvalidImportException(
+                    "Import body could not be parsed at row " + rowNumber, ex);
+        }
+
+        if (!chunk.isEmpty()) {
+            results.addAll(insertChunk(chunk));
+        }
+
+        // Rejected rows are reported immediately, inserted ones per chunk; restore request order
+        results.sort(Comparator.comparingInt(PatientImportRowResultDTO::getRow));
+
+        log.info("Bulk import finished: {} rows", results.size());
+        return new PatientImportResultDTO(results);
+    }
+
+    private Map<String, String> validate(PatientRequestDTO request) {
+        Set<ConstraintViolation<PatientRequestDTO>> violations =
+                validator.validate(request, Default.class, CreatePatientValidationGroup.class);
+
+        Map<String, String> errors = new LinkedHashMap<>();
+        for (ConstraintViolation<PatientRequestDTO> violation : violations) {
+            errors.put(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        return errors;
+    }
+
+    /**
+     * Insert one chunk: a single IN query drops emails that are already registered,
+     * then the remaining patients and their outbox events are saved in one transaction
+     * as JDBC batches. Only emails the email filter cannot rule out are looked up; for a
+     * chunk of new patients that usually means no query at all.
+     */
+    private List<PatientImportRowResultDTO> insertChunk(List<PendingRow> chunk) {
+        List<String> maybeRegistered = chunk.stream()
+                .map(row -> row.patient().getEmail())
+                .filter(emailFilter::mightContain)
+                .toList();
+        Set<String> existing = maybeRegistered.isEmpty()
+                ? Set.of()
+                : new HashSet<>(patientRepository.findExistingEmails(maybeRegistered));
+
+        List<PatientImportRowResultDTO> results = new ArrayList<>(chunk.size());
+        List<PendingRow> toInsert = new ArrayList<>(chunk.size());
+        for (PendingRow row : chunk) {
+            if (existing.contains(row.patient().getEmail())) {
+                results.add(duplicate(row.rowNumber()));
+            } else {
+                toInsert.add(row);
+            }
+        }
+        // Nothing changes, so no transaction, and the collection ETag stays valid for polling clients
+        if (toInsert.isEmpty()) {
+            return results;
+        }
+
+        try {
+            List<Patient> saved = transactionTemplate.execute(status -> {
+                List<Patient> patients = patientRepository.saveAll(toInsert.stream().map(PendingRow::patient).toList());
+                outboxWriter.patientsCreated(patients);
+                changeTracker.changed();
+                changeFeed.created(patients.stream().map(PatientMapper::toDTO).toList());
+                return patients;
+            });
+            // saveAll() returns the saved entities in the order given
+            for (int i = 0; i < saved.size(); i++) {
+                results.add(created(toInsert.get(i).rowNumber(), saved.get(i)));
+                emailFilter.add(saved.get(i).getEmail());
+            }
+        } catch (DataIntegrityViolationException ex) {
+            if (!PatientConstraints.isEmailUniqueViolation(ex)) {
+                throw ex;
+            }
+            // Another writer registered one of these emails in the meantime; find out which row
+            log.warn("Batch insert hit a constraint violation, retrying {} rows one by one", toInsert.size());
+            for (PendingRow row : toInsert) {
+                results.add(insertSingle(row));
+            }
+        }
+        return results;
+    }
+
+    private PatientImportRowResultDTO insertSingle(PendingRow row) {
+        // The failed batch assigned an ID and an initial version; without both reset the
+        // entity no longer counts as new and save() would merge a copy instead of persisting it
+        row.patient().setId(null);
+        row.patient().setVersion(null);
+        try {
+            Patient saved = transactionTemplate.execute(status -> {
+                Patient patient = patientRepository.save(row.patient());
+                outboxWriter.patientCreated(patient);
+                changeTracker.changed();
+                changeFeed.created(List.of(PatientMapper.toDTO(patient)));
+                return patient;
+            });
+            emailFilter.add(saved.getEmail());
+            return created(row.rowNumber(), saved);
+        } catch (DataIntegrityViolationException ex) {
+            if (!PatientConstraints.isEmailUniqueViolation(ex)) {
+                throw ex;
+            }
+            // Registered by someone else, possibly another instance: remember it from now on
+            emailFilter.add(row.patient().getEmail());
+            return duplicate(row.rowNumber());
+        }
+    }
+
+    private static PatientImportRowResultDTO created(int rowNumber, Patient saved) {
+        return new PatientImportRowResultDTO(rowNumber, Status.CREATED, String.valueOf(saved.getId()), null);
+    }
+
+    private static PatientImportRowResultDTO duplicate(int rowNumber) {
+        return new PatientImportRowResultDTO(rowNumber, Status.DUPLICATE, null,
+                Map.of("email", "email already exists"));
+    }
+
+    private record PendingRow(int rowNumber, Patient patient) {
+    }
+}
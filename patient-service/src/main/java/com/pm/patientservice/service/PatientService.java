@@ -1,106 +1,382 @@
 package com.pm.patientservice.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.google.protobuf.CodedOutputStream;
+import com.pm.patientservice.changefeed.PatientChangeFeed;
+import com.pm.patientservice.datasource.ReadRouting;
+import com.pm.patientservice.dto.PatientPageResponseDTO;
+import com.pm.patientservice.dto.PatientPatchDTO;
 import com.pm.patientservice.dto.PatientRequestDTO;
 import com.pm.patientservice.dto.PatientResponseDTO;
+import com.pm.patientservice.dto.PatientSummaryDTO;
 import com.pm.patientservice.exception.EmailAlreadyExistsException;
 import com.pm.patientservice.exception.PatientNotFoundException;
+import com.pm.patientservice.exception.PatientVersionConflictException;
 import com.pm.patientservice.mapper.PatientMapper;
+import com.pm.patientservice.mapper.PatientProtoMapper;
+import com.pm.patientservice.model.OutboxEventType;
 import com.pm.patientservice.model.Patient;
+import com.pm.patientservice.outbox.OutboxWriter;
 import com.pm.patientservice.repository.PatientRepository;
+import com.pm.patientservice.repository.PatientSpecifications;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Service
+@Timed(value = "patient.service", histogram = true)
 public class PatientService {
 
     // Injecting the PatientRepository to interact with the database
     private final PatientRepository patientRepository;
 
+    // Read-through cache in front of the repository for single-patient lookups
+    private final PatientCache patientCache;
+
+    // Table-wide change counter, the validator of conditional GETs on patient collections
+    private final PatientChangeTracker changeTracker;
+
+    // Committed writes for subscribers of GET /patients/changes
+    private final PatientChangeFeed changeFeed;
+
+    // Registered emails, so bulk import can skip lookups for certainly new ones
+    private final EmailFilter emailFilter;
+
+    // Records patient events in the same transaction; the outbox relay delivers them later
+    private final OutboxWriter outboxWriter;
+
+    // Time spent converting entities to response DTOs, recorded once per result list
+    private final Timer mapperTimer;
+
+    // Writer for streamed rows; flushing is batched by hand instead of after every value
+    private final ObjectWriter streamWriter;
+
+    // Upper bound for a single keyset page, whatever the client asks for
+    static final int MAX_PAGE_SIZE = 500;
+
+    // Type-ahead only ever shows a handful of matches
+    static final int MAX_SEARCH_RESULTS = 100;
+
+    // How many streamed rows (NDJSON lines or protobuf messages) are buffered before pushing them to the socket
+    private static final int STREAM_FLUSH_INTERVAL = 500;
+
     // Constructor injection (preferred for immutability and easier testing)
-    public PatientService(PatientRepository patientRepository) {
+    public PatientService(PatientRepository patientRepository, PatientCache patientCache,
+                          PatientChangeTracker changeTracker, PatientChangeFeed changeFeed,
+                          EmailFilter emailFilter, OutboxWriter outboxWriter,
+                          ObjectMapper objectMapper, MeterRegistry meterRegistry) {
         this.patientRepository = patientRepository;
+        this.patientCache = patientCache;
+        this.changeTracker = changeTracker;
+        this.changeFeed = changeFeed;
+        this.emailFilter = emailFilter;
+        this.outboxWriter = outboxWriter;
+        this.mapperTimer = Timer.builder("patient.mapper")
+                .description("PatientMapper.toDTO over one result")
+                .register(meterRegistry);
+        this.streamWriter = objectMapper.writerFor(PatientSummaryDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
     /**
-     * Fetch all patients from the database and convert them into response DTOs.
-     * This is used by the controller to return a clean, safe response object
-     * instead of exposing the entity model directly.
+     * Fetch all patients from the database as read-only projections.
+     * The columns are selected straight into response records, so no entities are
+     * hydrated or tracked and PatientMapper is not involved.
      */
-    public List<PatientResponseDTO> getPatients() {
-        return patientRepository.findAll()
-                .stream()
-                .map(PatientMapper::toDTO) // Convert each Patient entity to a DTO
-                .toList();
+    @Transactional(readOnly = true)
+    public List<PatientSummaryDTO> getPatients() {
+        return patientRepository.findAllSummaries();
+    }
+
+    /**
+     * Fetch a single patient by ID.
+     * Served from the patient cache when possible, otherwise loaded from the DB and cached.
+     * Cache fills always read the primary, so a lagging read replica never puts an old copy in the cache.
+     */
+    public PatientResponseDTO getPatient(UUID id) {
+        return patientCache.get(id, key -> ReadRouting.onPrimary(() -> patientRepository.findById(key))
+                        .map(patient -> mapperTimer.record(() -> PatientMapper.toDTO(patient))))
+                .orElseThrow(() -> new PatientNotFoundException("Patient not found with ID: " + id));
+    }
+
+    /**
+     * Search patients for the front desk.
+     * 1. Combine the criteria that were supplied (name/email prefix, date ranges).
+     * 2. Order by name so type-ahead results are stable between keystrokes.
+     * 3. Return at most {@code limit} matches.
+     */
+    @Transactional(readOnly = true)
+    public List<PatientResponseDTO> searchPatients(String query, LocalDate dobFrom, LocalDate dobTo,
+                                                   LocalDate registeredFrom, LocalDate registeredTo, int limit) {
+        List<Specification<Patient>> criteria = new ArrayList<>();
+        if (query != null && !query.isBlank()) {
+            criteria.add(PatientSpecifications.nameOrEmailStartsWith(query.strip()));
+        }
+        if (dobFrom != null || dobTo != null) {
+            criteria.add(PatientSpecifications.dateOfBirthBetween(dobFrom, dobTo));
+        }
+        if (registeredFrom != null || registeredTo != null) {
+            criteria.add(PatientSpecifications.registeredDateBetween(registeredFrom, registeredTo));
+        }
+
+        int maxResults = Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS));
+        List<Patient> patients = patientRepository.findBy(Specification.allOf(criteria), q -> q
+                .sortBy(Sort.by("name", "id"))
+                .limit(maxResults)
+                .all());
+        return mapperTimer.record(() -> patients.stream().map(PatientMapper::toDTO).toList());
+    }
+
+    /**
+     * Fetch one page of patients using keyset pagination on (registeredDate, id).
+     * 1. Decode the cursor (if any) into the last key the client has seen.
+     * 2. Load limit + 1 rows after that key to find out whether another page exists.
+     * 3. Return the page together with the token for the next one.
+     */
+    @Transactional(readOnly = true)
+    public PatientPageResponseDTO getPatientPage(String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Limit fetchLimit = Limit.of(pageSize + 1);
+
+        List<Patient> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = patientRepository.findAllByOrderByRegisteredDateAscIdAsc(fetchLimit);
+        } else {
+            PatientCursor after = PatientCursor.decode(cursor);
+            rows = patientRepository.findPageAfter(after.registeredDate(), after.id(), fetchLimit);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<Patient> page = hasMore ? rows.subList(0, pageSize) : rows;
+        String next = hasMore ? PatientCursor.of(page.get(pageSize - 1)).encode() : null;
+
+        return new PatientPageResponseDTO(
+                mapperTimer.record(() -> page.stream().map(PatientMapper::toDTO).toList()), next);
+    }
+
+    /**
+     * Write every patient to the given stream as newline-delimited JSON.
+     * Rows come off a JDBC cursor as projections that are never tracked by the
+     * persistence context, so heap use does not grow with the size of the table.
+     */
+    @Transactional(readOnly = true)
+    public void streamPatients(OutputStream out) throws IOException {
+        try (Stream<PatientSummaryDTO> patients = patientRepository.streamAllSummaries();
+             JsonGenerator generator = streamWriter.createGenerator(out)) {
+
+            // Lines are separated explicitly below, not by Jackson's root separator,
+            // and the response stream is left for the servlet container to close
+            generator.setRootValueSeparator(null);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            int written = 0;
+            for (PatientSummaryDTO patient : (Iterable<PatientSummaryDTO>) patients::iterator) {
+                streamWriter.writeValue(generator, patient);
+                generator.writeRaw('\n');
+
+                if (++written % STREAM_FLUSH_INTERVAL == 0) {
+                    generator.flush();
+                }
+            }
+            generator.flush();
+        }
+    }
+
+    /**
+     * Write every patient to the given stream as length-delimited protobuf messages
+     * (varint size, then the Patient message), readable with Patient.parseDelimitedFrom.
+     * One CodedOutputStream buffers all messages instead of one per message.
+     */
+    @Transactional(readOnly = true)
+    public void streamPatientsProto(OutputStream out) throws IOException {
+        try (Stream<PatientSummaryDTO> patients = patientRepository.streamAllSummaries()) {
+            CodedOutputStream output = CodedOutputStream.newInstance(out);
+
+            int written = 0;
+            for (PatientSummaryDTO patient : (Iterable<PatientSummaryDTO>) patients::iterator) {
+                output.writeMessageNoTag(PatientProtoMapper.toProto(patient));
+
+                if (++written % STREAM_FLUSH_INTERVAL == 0) {
+                    output.flush();
+                }
+            }
+            output.flush();
+        }
     }
 
     /**
      * Create a new patient record.
-     * 1. Check if the email already exists to maintain uniqueness.
-     * 2. Convert the incoming DTO to a Patient entity.
-     * 3. Save it to the DB
+     * 1. Convert the incoming DTO to a Patient entity.
+     * 2. Insert it in a single statement; the unique index on email rejects duplicates.
+     * 3. Record a PATIENT_CREATED event in the outbox (billing is provisioned from it).
      * 4. Return the saved patient as a response DTO.
      */
+    @Transactional
     public PatientResponseDTO createPatient(PatientRequestDTO patientRequestDTO) {
-        // Prevent duplicate email registrations
-        if (patientRepository.existsByEmail(patientRequestDTO.getEmail())) {
-            throw new EmailAlreadyExistsException(
-                    "A patient with this email already exists: " + patientRequestDTO.getEmail()
-            );
+        Patient newPatient;
+        try {
+            // Flush right away so a duplicate email surfaces here, not at some later commit
+            newPatient = patientRepository.saveAndFlush(PatientMapper.toModel(patientRequestDTO));
+        } catch (DataIntegrityViolationException ex) {
+            throw emailAlreadyExists(patientRequestDTO.getEmail(), ex);
         }
 
-        // Convert DTO to entity and save in database
-        Patient newPatient = patientRepository.save(PatientMapper.toModel(patientRequestDTO));
+        emailFilter.add(newPatient.getEmail());
+        changeTracker.changed();
+
+        // Committed together with the patient; downstream systems never miss or invent a patient
+        outboxWriter.patientCreated(newPatient);
 
         // Return saved patient as DTO (used by controller to send JSON response)
-        return PatientMapper.toDTO(newPatient);
+        PatientResponseDTO created = PatientMapper.toDTO(newPatient);
+        changeFeed.published(OutboxEventType.PATIENT_CREATED, created.getId(), created);
+        return created;
     }
 
     /**
-     * Update an existing patient's details.
-     * 1. Check if the patient exists by ID.
-     * 2. Ensure the updated email isn’t already used by another patient.
-     * 3. Update all relevant fields.
-     * 4. Save changes and return the updated DTO.
+     * Replace an existing patient's details.
+     * 1. Load the patient by ID (always against the DB, the entity must be managed)
+     *    and check the version the client expects, if it sent one.
+     * 2. Copy the fields over; a request that changes nothing writes nothing.
+     * 3. Otherwise flush the update (see saveUpdate) and return the updated DTO.
      */
-    public PatientResponseDTO updatePatient(UUID id, PatientRequestDTO patientRequestDTO) {
+    @Transactional
+    public PatientResponseDTO updatePatient(UUID id, PatientRequestDTO patientRequestDTO, Long expectedVersion) {
+        Patient patient = loadForUpdate(id, expectedVersion);
+
+        boolean changed = applyChanges(patient, patientRequestDTO.getName(), patientRequestDTO.getEmail(),
+                patientRequestDTO.getAddress(), patientRequestDTO.getDateOfBirth());
+        return changed ? saveUpdate(patient) : PatientMapper.toDTO(patient);
+    }
+
+    /**
+     * Change only the fields present in the patch.
+     * Same steps as updatePatient; the UPDATE statement lists just the columns whose value
+     * actually changed, and an unchanged patient is neither written nor announced in the outbox.
+     */
+    @Transactional
+    public PatientResponseDTO patchPatient(UUID id, PatientPatchDTO patch, Long expectedVersion) {
+        Patient patient = loadForUpdate(id, expectedVersion);
+
+        boolean changed = applyChanges(patient, patch.getName(), patch.getEmail(),
+                patch.getAddress(), patch.getDateOfBirth());
+        return changed ? saveUpdate(patient) : PatientMapper.toDTO(patient);
+    }
+
+    private Patient loadForUpdate(UUID id, Long expectedVersion) {
         // Find existing patient or throw error if not found
         Patient patient = patientRepository.findById(id)
                 .orElseThrow(() -> new PatientNotFoundException("Patient not found with ID: " + id));
 
-        // Check if the new email belongs to another patient
-        if (patientRepository.existsByEmailAndIdNot(patientRequestDTO.getEmail(), id)) {
-            throw new EmailAlreadyExistsException(
-                    "A patient with this email already exists: " + patientRequestDTO.getEmail()
-            );
+        // The client edited an older copy: refuse instead of overwriting someone else's change
+        if (expectedVersion != null && !expectedVersion.equals(patient.getVersion())) {
+            throw new PatientVersionConflictException("Patient " + id + " is at version "
+                    + patient.getVersion() + ", the request expected " + expectedVersion);
         }
+        return patient;
+    }
+
+    /**
+     * Copy every given (non-null) value that differs from the current one.
+     *
+     * @return whether anything changed
+     */
+    private static boolean applyChanges(Patient patient, String name, String email,
+                                        String address, String dateOfBirth) {
+        boolean changed = false;
+        if (name != null && !name.equals(patient.getName())) {
+            patient.setName(name);
+            changed = true;
+        }
+        if (email != null && !email.equals(patient.getEmail())) {
+            patient.setEmail(email);
+            changed = true;
+        }
+        if (address != null && !address.equals(patient.getAddress())) {
+            patient.setAddress(address);
+            changed = true;
+        }
+        if (dateOfBirth != null) {
+            LocalDate parsed = LocalDate.parse(dateOfBirth);
+            if (!parsed.equals(patient.getDateOfBirth())) {
+                patient.setDateOfBirth(parsed);
+                changed = true;
+            }
+        }
+        return changed;
+    }
 
-        // Update fields from request DTO
-        patient.setName(patientRequestDTO.getName());
-        patient.setEmail(patientRequestDTO.getEmail());
-        patient.setAddress(patientRequestDTO.getAddress());
-        patient.setDateOfBirth(LocalDate.parse(patientRequestDTO.getDateOfBirth()));
+    /**
+     * Write a changed patient.
+     * 1. Flush the update; the version check rejects a concurrent edit that committed since
+     *    the patient was loaded, and the unique index on email rejects an email used by another patient.
+     * 2. Record a PATIENT_UPDATED event in the outbox.
+     * 3. Drop the cached copy and return the updated DTO.
+     */
+    private PatientResponseDTO saveUpdate(Patient patient) {
+        Patient updatedPatient;
+        try {
+            updatedPatient = patientRepository.saveAndFlush(patient);
+        } catch (OptimisticLockingFailureException ex) {
+            throw new PatientVersionConflictException("Patient " + patient.getId() + " was modified concurrently");
+        } catch (DataIntegrityViolationException ex) {
+            throw emailAlreadyExists(patient.getEmail(), ex);
+        }
 
-        // Save the updated entity and map to DTO
-        Patient updatedPatient = patientRepository.save(patient);
-        return PatientMapper.toDTO(updatedPatient);
+        emailFilter.add(updatedPatient.getEmail());
+        changeTracker.changed();
+        outboxWriter.patientUpdated(updatedPatient);
+
+        // Drop the cached copy so the next read sees the new values
+        patientCache.invalidate(updatedPatient.getId());
+        PatientResponseDTO updated = PatientMapper.toDTO(updatedPatient);
+        changeFeed.published(OutboxEventType.PATIENT_UPDATED, updated.getId(), updated);
+        return updated;
     }
 
     /**
      * Delete a patient record by ID.
-     * 1. Validate if the patient exists.
-     * 2. Perform delete operation.
+     * 1. Delete the row; the affected row count tells whether the patient existed.
+     * 2. Record a PATIENT_DELETED event in the outbox and evict the patient from the cache.
      * 3. If patient doesn’t exist, throw an exception.
      */
+    @Transactional
     public void deletePatient(UUID id) {
-        // Check if patient exists before deleting
-        if (!patientRepository.existsById(id)) {
+        if (patientRepository.deletePatientById(id) == 0) {
             throw new PatientNotFoundException("Patient not found with ID: " + id);
         }
 
-        // Delete record from DB
-        patientRepository.deleteById(id);
+        changeTracker.changed();
+        outboxWriter.patientDeleted(id);
+        changeFeed.published(OutboxEventType.PATIENT_DELETED, id.toString(), null);
+        patientCache.invalidate(id);
+    }
+
+    /**
+     * Translate a unique-email violation into the API error; anything else is rethrown as is.
+     */
+    private static RuntimeException emailAlreadyExists(String email, DataIntegrityViolationException ex) {
+        if (!PatientConstraints.isEmailUniqueViolation(ex)) {
+            return ex;
+        }
+        return new EmailAlreadyExistsException("A patient with this email already exists: " + email);
     }
 }
@@ -0,0 +1,25 @@
+package com.pm.patientservice.startup;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Settings for the fast-startup profile (spring.main.lazy-initialization).
+ */
+@Configuration
+public class StartupConfig {
+
+    /**
+     * Keep the connection pool, schema scripts and Hibernate bootstrap eager even when
+     * everything else is lazy. Otherwise the first request pays for them, and a bad
+     * datasource only shows up after the instance has been reported as started.
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter eagerPersistence() {
+        return LazyInitializationExcludeFilter.forBeanTypes(DataSource.class, EntityManagerFactory.class);
+    }
+}
@@ -0,0 +1,13 @@
+-- Postgres-only indexes for GET /patients/search (not understood by H2, hence a separate script).
+-- Run after schema.sql; the prod profile lists both in spring.sql.init.schema-locations.
+--
+-- Trigram GIN indexes on the lower-cased columns serve the case-insensitive
+-- "lower(name) LIKE 'abc%'" / "lower(email) LIKE 'abc%'" predicates regardless of collation.
+-- Target: p99 under 50 ms at 5M patients for a prefix of 3+ characters with limit 20.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_patient_name_trgm
+    ON patient USING gin (lower(name) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_patient_email_trgm
+    ON patient USING gin (lower(email) gin_trgm_ops);
@@ -0,0 +1,65 @@
+-- Ensure the 'patient' table exists
+CREATE TABLE IF NOT EXISTS patient
+(
+    id              UUID PRIMARY KEY,
+    name            VARCHAR(255)        NOT NULL,
+    email           VARCHAR(255)        NOT NULL,
+    address         VARCHAR(255)        NOT NULL,
+    date_of_birth   DATE                NOT NULL,
+    registered_date DATE                NOT NULL,
+    version         BIGINT DEFAULT 0    NOT NULL,
+    CONSTRAINT uk_patient_email UNIQUE (email)
+    );
+
+-- Optimistic locking column, added to tables created before it existed
+ALTER TABLE patient ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+
+-- Keyset pagination walks patients in (registered_date, id) order
+CREATE INDEX IF NOT EXISTS idx_patient_registered_date_id
+    ON patient (registered_date, id);
+
+-- Patient search: date-of-birth range filter. The name and email prefix match on lower(...)
+-- is served by the trigram indexes in db/postgresql/patient-search-indexes.sql; a plain
+-- index on name cannot serve it, so the one created by earlier versions is dropped.
+CREATE INDEX IF NOT EXISTS idx_patient_date_of_birth
+    ON patient (date_of_birth);
+DROP INDEX IF EXISTS idx_patient_name;
+
+-- Transactional outbox: patient events waiting for the relay, each patient's in aggregate_version order
+CREATE SEQUENCE IF NOT EXISTS outbox_event_seq START WITH 1 INCREMENT BY 50;
+CREATE TABLE IF NOT EXISTS outbox_event
+(
+    id                BIGINT PRIMARY KEY,
+    aggregate_id      UUID             NOT NULL,
+    event_type        VARCHAR(50)      NOT NULL,
+    payload           VARCHAR(4000)    NOT NULL,
+    created_at        TIMESTAMP        NOT NULL,
+    aggregate_version BIGINT DEFAULT 0 NOT NULL,
+    attempts          INT DEFAULT 0    NOT NULL,
+    claimed_until     TIMESTAMP,
+    parked_at         TIMESTAMP
+    );
+
+-- Delivery state, added to tables created before it existed
+ALTER TABLE outbox_event ADD COLUMN IF NOT EXISTS aggregate_version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE outbox_event ADD COLUMN IF NOT EXISTS attempts INT DEFAULT 0 NOT NULL;
+ALTER TABLE outbox_event ADD COLUMN IF NOT EXISTS claimed_until TIMESTAMP;
+ALTER TABLE outbox_event ADD COLUMN IF NOT EXISTS parked_at TIMESTAMP;
+
+-- The relay only claims the oldest pending event of each patient
+CREATE INDEX IF NOT EXISTS idx_outbox_event_aggregate
+    ON outbox_event (aggregate_id, aggregate_version);
+
+-- Version of the whole patient table for conditional GETs, bumped by every write transaction
+CREATE TABLE IF NOT EXISTS patient_change_counter
+(
+    id         INT PRIMARY KEY,
+    generation BIGINT    NOT NULL,
+    changed_at TIMESTAMP NOT NULL
+    );
+
+INSERT INTO patient_change_counter (id, generation, changed_at)
+SELECT 1, 0, CURRENT_TIMESTAMP
+    WHERE NOT EXISTS (SELECT 1
+                  FROM patient_change_counter
+                  WHERE id = 1);
@@ -0,0 +1,75 @@
+package com.pm.patientservice.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTests {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(2);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(40);
+
+    @Test
+    void rejectsRequestsBeyondTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10);
+
+        AdaptiveConcurrencyLimiter.Permit first = limiter.tryAcquire();
+        AdaptiveConcurrencyLimiter.Permit second = limiter.tryAcquire();
+        assertThat(first).isNotNull();
+        assertThat(second).isNotNull();
+        assertThat(limiter.tryAcquire()).isNull();
+
+        first.ignore();
+        first.ignore();
+        assertThat(limiter.inflight()).isEqualTo(1);
+        assertThat(limiter.tryAcquire()).isNotNull();
+    }
+
+    @Test
+    void shrinksWhenLatencyRisesAndGrowsBackWhenItRecovers() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(50, 5, 1000);
+
+        feed(limiter, FAST, 100);
+        int healthy = limiter.limit();
+        assertThat(healthy).isGreaterThan(50);
+
+        feed(limiter, SLOW, 30);
+        int overloaded = limiter.limit();
+        assertThat(overloaded).isLessThan(healthy / 2);
+
+        feed(limiter, FAST, 200);
+        assertThat(limiter.limit()).isGreaterThan(overloaded * 2);
+    }
+
+    @Test
+    void backsOffOnDroppedRequests() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(100, 10, 1000);
+
+        limiter.sample(FAST, 1, true);
+        assertThat(limiter.limit()).isEqualTo(90);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.sample(FAST, 1, true);
+        }
+        assertThat(limiter.limit()).isEqualTo(10);
+    }
+
+    @Test
+    void ignoresLatencyFarBelowTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(100, 10, 1000);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.sample(SLOW, 10, false);
+        }
+        assertThat(limiter.limit()).isEqualTo(100);
+    }
+
+    // Samples from a limiter running at its limit
+    private static void feed(AdaptiveConcurrencyLimiter limiter, long latencyNanos, int count) {
+        for (int i = 0; i < count; i++) {
+            limiter.sample(latencyNanos, limiter.limit(), false);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.pm.patientservice.admission;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * A read budget of exactly one request, so holding its permit saturates it.
+ */
+@SpringBootTest(properties = {
+        "patient.admission.read.initial-limit=1",
+        "patient.admission.read.min-limit=1",
+        "patient.admission.read.max-limit=1",
+        "patient.admission.retry-after=2s",
+        "outbox.relay.enabled=false"})
+@AutoConfigureMockMvc
+class AdmissionControlTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AdmissionControlConfig admissionControl;
+
+    @Test
+    void rejectsReadsOverTheReadBudgetButStillAdmitsWrites() throws Exception {
+        AdaptiveConcurrencyLimiter.Permit held = admissionControl.reads().tryAcquire();
+        assertThat(held).isNotNull();
+        try {
+            mockMvc.perform(get("/patients"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"))
+                    .andExpect(jsonPath("$.message").exists());
+
+            mockMvc.perform(post("/patients")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("""
+                                    {"name": "Admitted Writer", "email": "writer-%d@example.com",
+                                     "address": "3 Budget Street", "dateOfBirth": "1985-02-03",
+                                     "registeredDate": "2024-05-06"}
+                                    """.formatted(System.nanoTime())))
+                    .andExpect(status().isOk());
+        } finally {
+            held.ignore();
+        }
+
+        mockMvc.perform(get("/patients")).andExpect(status().isOk());
+        assertThat(admissionControl.reads().inflight()).isZero();
+    }
+
+    @Test
+    void streamsHoldTheirPermitUntilTheAsyncDispatchCompletes() throws Exception {
+        MvcResult stream = mockMvc.perform(get("/patients/stream").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        assertThat(admissionControl.reads().inflight()).isEqualTo(1);
+        mockMvc.perform(get("/patients")).andExpect(status().isServiceUnavailable());
+
+        mockMvc.perform(asyncDispatch(stream)).andExpect(status().isOk());
+        assertThat(admissionControl.reads().inflight()).isZero();
+        mockMvc.perform(get("/patients")).andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,131 @@
+package com.pm.patientservice.changefeed;
+
+import com.pm.patientservice.dto.PatientChangeDTO;
+import com.pm.patientservice.dto.PatientResponseDTO;
+import com.pm.patientservice.exception.ChangeFeedCursorExpiredException;
+import com.pm.patientservice.model.OutboxEventType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PatientChangeFeedTests {
+
+    private final PatientChangeFeed feed = new PatientChangeFeed(10, 3);
+
+    @AfterEach
+    void stopFeed() {
+        feed.destroy();
+    }
+
+    @Test
+    void returnsChangesAfterTheCursorInOrder() {
+        long start = feed.lastSequence();
+        publish("a");
+        publish("b");
+        publish("c");
+
+        assertThat(feed.changesAfter(start, 100)).extracting(PatientChangeDTO::patientId)
+                .containsExactly("a", "b", "c");
+        assertThat(feed.changesAfter(start + 1, 1)).extracting(PatientChangeDTO::patientId)
+                .containsExactly("b");
+        assertThat(feed.changesAfter(feed.lastSequence(), 100)).isEmpty();
+    }
+
+    @Test
+    void expiresCursorsTheRingNoLongerCovers() {
+        long start = feed.lastSequence();
+        for (int i = 0; i < 11; i++) {
+            publish("p" + i);
+        }
+
+        assertThatThrownBy(() -> feed.changesAfter(start, 100))
+                .isInstanceOf(ChangeFeedCursorExpiredException.class);
+        assertThatThrownBy(() -> feed.changesAfter(feed.lastSequence() + 1, 100))
+                .isInstanceOf(ChangeFeedCursorExpiredException.class);
+        assertThat(feed.changesAfter(start + 1, 100)).hasSize(10);
+    }
+
+    @Test
+    void streamsBacklogAndNewChangesToSubscribers() throws Exception {
+        long start = feed.lastSequence();
+        publish("a");
+
+        BlockingQueue<String> received = new LinkedBlockingQueue<>();
+        PatientChangeFeed.Subscription subscription = feed.subscribe(start, new PatientChangeFeed.Subscriber() {
+            @Override
+            public void onChange(PatientChangeDTO change) {
+                received.add(change.patientId());
+            }
+
+            @Override
+            public void onDropped(String reason) {
+                received.add("dropped");
+            }
+        });
+        publish("b");
+
+        assertThat(received.poll(5, TimeUnit.SECONDS)).isEqualTo("a");
+        assertThat(received.poll(5, TimeUnit.SECONDS)).isEqualTo("b");
+
+        subscription.cancel();
+        publish("c");
+        assertThat(received.poll(200, TimeUnit.MILLISECONDS)).isNull();
+        assertThat(feed.subscribers()).isZero();
+    }
+
+    @Test
+    void dropsSubscribersThatFallTooFarBehind() throws Exception {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CompletableFuture<String> dropped = new CompletableFuture<>();
+        feed.subscribe(feed.lastSequence(), new PatientChangeFeed.Subscriber() {
+            @Override
+            public void onChange(PatientChangeDTO change) throws Exception {
+                blocked.await();
+            }
+
+            @Override
+            public void onDropped(String reason) {
+                dropped.complete(reason);
+            }
+        });
+
+        for (int i = 0; i < 5; i++) {
+            publish("p" + i);
+        }
+
+        assertThat(dropped.get(5, TimeUnit.SECONDS)).contains("behind");
+        assertThat(feed.subscribers()).isZero();
+        blocked.countDown();
+    }
+
+    @Test
+    void wakesWaitersOnTheNextChange() throws Exception {
+        long start = feed.lastSequence();
+        CountDownLatch woken = new CountDownLatch(1);
+        feed.onChangeAfter(start, woken::countDown);
+        assertThat(woken.getCount()).isEqualTo(1);
+
+        publish("a");
+        assertThat(woken.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CountDownLatch removed = new CountDownLatch(1);
+        feed.onChangeAfter(feed.lastSequence(), removed::countDown).run();
+        publish("b");
+        assertThat(removed.await(200, TimeUnit.MILLISECONDS)).isFalse();
+    }
+
+    private void publish(String patientId) {
+        PatientResponseDTO patient = new PatientResponseDTO();
+        patient.setId(patientId);
+        feed.created(List.of(patient));
+    }
+}
@@ -0,0 +1,74 @@
+package com.pm.patientservice.controller;
+
+import com.pm.patientservice.dto.PatientRequestDTO;
+import com.pm.patientservice.dto.PatientResponseDTO;
+import com.pm.patientservice.protobuf.ProtobufConfig;
+import com.pm.patientservice.service.PatientService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "outbox.relay.enabled=false")
+@AutoConfigureMockMvc
+class PatientControllerConditionalGetTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Test
+    void unchangedListIsNotModifiedUntilAPatientIsWritten() throws Exception {
+        String eTag = mockMvc.perform(get("/patients"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).startsWith("W/\"");
+
+        mockMvc.perform(get("/patients").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+
+        createPatient("conditional-list");
+
+        mockMvc.perform(get("/patients").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(eTag)));
+    }
+
+    @Test
+    void unchangedPatientIsNotModified() throws Exception {
+        PatientResponseDTO patient = createPatient("conditional-single");
+
+        mockMvc.perform(get("/patients/{id}", patient.getId()))
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"0\""));
+        mockMvc.perform(get("/patients/{id}", patient.getId()).accept(ProtobufConfig.APPLICATION_PROTOBUF))
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"0\""));
+
+        mockMvc.perform(get("/patients/{id}", patient.getId()).header(HttpHeaders.IF_NONE_MATCH, "W/\"0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    private PatientResponseDTO createPatient(String prefix) {
+        PatientRequestDTO request = new PatientRequestDTO();
+        request.setName("Conditional Patient");
+        request.setEmail(prefix + "-" + System.nanoTime() + "@example.com");
+        request.setAddress("1 Cache Lane");
+        request.setDateOfBirth("1975-07-08");
+        request.setRegisteredDate("2024-01-01");
+        return patientService.createPatient(request);
+    }
+}
@@ -0,0 +1,135 @@
+package com.pm.patientservice.controller;
+
+import com.pm.patientservice.dto.PatientRequestDTO;
+import com.pm.patientservice.dto.PatientResponseDTO;
+import com.pm.patientservice.service.PatientService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "outbox.relay.enabled=false")
+@AutoConfigureMockMvc
+class PatientControllerExportTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PatientService patientService;
+
+    private PatientResponseDTO created;
+
+    @BeforeEach
+    void createPatient() {
+        PatientRequestDTO request = new PatientRequestDTO();
+        request.setName("Export, \"Quoted\" Patient");
+        request.setEmail("export-" + System.nanoTime() + "@example.com");
+        request.setAddress("1 Dump Street");
+        request.setDateOfBirth("1990-02-03");
+        request.setRegisteredDate("2024-01-01");
+        created = patientService.createPatient(request);
+    }
+
+    @Test
+    void exportsCsvLikePostgresCopy() throws Exception {
+        List<String> lines = new String(export("text/csv", null), StandardCharsets.UTF_8).lines().toList();
+
+        assertThat(lines.get(0)).isEqualTo("id,name,email,address,date_of_birth,registered_date");
+        assertThat(lines).contains(created.getId() + ",\"Export, \"\"Quoted\"\" Patient\","
+                + created.getEmail() + ",1 Dump Street,1990-02-03,2024-01-01");
+    }
+
+    @Test
+    void compressesWhenTheClientAcceptsGzip() throws Exception {
+        byte[] plain = export("text/csv", null);
+        byte[] gzipped = export("text/csv", "gzip, deflate");
+
+        assertThat(gzipped.length).isLessThan(plain.length);
+        assertThat(new GZIPInputStream(new ByteArrayInputStream(gzipped)).readAllBytes()).isEqualTo(plain);
+    }
+
+    @Test
+    void honoursQValuesInAcceptEncoding() throws Exception {
+        assertThat(contentEncoding("gzip;q=0.5, deflate")).isEqualTo("gzip");
+        assertThat(contentEncoding("*")).isEqualTo("gzip");
+        assertThat(contentEncoding("gzip;q=0")).isNull();
+        assertThat(contentEncoding("gzip;q=0, *")).isNull();
+        assertThat(contentEncoding("*;q=0, identity")).isNull();
+        assertThat(contentEncoding("deflate, br")).isNull();
+    }
+
+    @Test
+    void exportsPostgresBinaryCopyFormat() throws Exception {
+        long csvRows = new String(export("text/csv", null), StandardCharsets.UTF_8).lines().count() - 1;
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(
+                export(MediaType.APPLICATION_OCTET_STREAM_VALUE, null)));
+
+        assertThat(in.readNBytes(11)).isEqualTo("PGCOPY\n\377\r\n\0".getBytes(StandardCharsets.ISO_8859_1));
+        assertThat(in.readInt()).isZero();
+        assertThat(in.readInt()).isZero();
+
+        long rows = 0;
+        boolean found = false;
+        while (in.readShort() == 6) {
+            rows++;
+            assertThat(in.readInt()).isEqualTo(16);
+            UUID id = new UUID(in.readLong(), in.readLong());
+            String name = new String(in.readNBytes(in.readInt()), StandardCharsets.UTF_8);
+            in.skipNBytes(in.readInt());
+            in.skipNBytes(in.readInt());
+            assertThat(in.readInt()).isEqualTo(4);
+            LocalDate dateOfBirth = LocalDate.of(2000, 1, 1).plusDays(in.readInt());
+            assertThat(in.readInt()).isEqualTo(4);
+            in.readInt();
+
+            if (id.toString().equals(created.getId())) {
+                found = true;
+                assertThat(name).isEqualTo("Export, \"Quoted\" Patient");
+                assertThat(dateOfBirth).isEqualTo(LocalDate.of(1990, 2, 3));
+            }
+        }
+        assertThat(in.read()).isEqualTo(-1);
+        assertThat(found).isTrue();
+        assertThat(rows).isEqualTo(csvRows);
+    }
+
+    private String contentEncoding(String acceptEncoding) throws Exception {
+        MvcResult result = mockMvc.perform(get("/patients/export").accept("text/csv")
+                        .header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding))
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result)).andReturn().getResponse()
+                .getHeader(HttpHeaders.CONTENT_ENCODING);
+    }
+
+    private byte[] export(String accept, String acceptEncoding) throws Exception {
+        var request = get("/patients/export").accept(accept);
+        if (acceptEncoding != null) {
+            request.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        MvcResult result = mockMvc.perform(request).andReturn();
+        return mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andReturn().getResponse().getContentAsByteArray();
+    }
+}
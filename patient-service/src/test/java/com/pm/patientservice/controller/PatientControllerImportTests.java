@@ -0,0 +1,52 @@
+package com.pm.patientservice.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "outbox.relay.enabled=false")
+@AutoConfigureMockMvc
+class PatientControllerImportTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void importsAJsonArrayAndReportsEveryRow() throws Exception {
+        String prefix = "bulk-json-" + System.nanoTime();
+
+        mockMvc.perform(post("/patients/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                [
+                                  {"name": "Bulk One", "email": "%1$s-1@example.com", "address": "1 Import Road",
+                                   "dateOfBirth": "1990-01-01", "registeredDate": "2024-05-09"},
+                                  {"name": "Bulk Two", "email": "%1$s-1@example.com", "address": "2 Import Road",
+                                   "dateOfBirth": "1991-02-02", "registeredDate": "2024-05-09"}
+                                ]
+                                """.formatted(prefix)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.rows[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.rows[0].id").isNotEmpty())
+                .andExpect(jsonPath("$.rows[1].status").value("DUPLICATE"));
+    }
+
+    @Test
+    void rejectsABodyThatCannotBeParsed() throws Exception {
+        mockMvc.perform(post("/patients/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"name\": \"Broken\", "))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Import body could not be parsed at row 1"));
+    }
+}
@@ -0,0 +1,114 @@
+package com.pm.patientservice.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.patientservice.dto.PatientRequestDTO;
+import com.pm.patientservice.model.Patient;
+import com.pm.patientservice.repository.PatientRepository;
+import com.pm.patientservice.service.PatientService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "outbox.relay.enabled=false")
+@AutoConfigureMockMvc
+class PatientControllerPageTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    // Several patients on one registration date, so pages also break between equal dates
+    @BeforeEach
+    void createPatients() {
+        for (int i = 0; i < 5; i++) {
+            PatientRequestDTO request = new PatientRequestDTO();
+            request.setName("Paged Patient " + i);
+            request.setEmail("paged-" + i + "-" + System.nanoTime() + "@example.com");
+            request.setAddress("1 Keyset Row");
+            request.setDateOfBirth("1980-01-01");
+            request.setRegisteredDate("2024-06-01");
+            patientService.createPatient(request);
+        }
+    }
+
+    @Test
+    void pagesVisitEveryPatientOnceInRegistrationOrder() throws Exception {
+        List<UUID> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            var page = get("/patients").param("limit", "3");
+            if (cursor != null) {
+                page.param("cursor", cursor);
+            }
+            JsonNode body = objectMapper.readTree(mockMvc.perform(page)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+
+            assertThat(body.get("items").size()).isBetween(1, 3);
+            for (JsonNode item : body.get("items")) {
+                ids.add(UUID.fromString(item.get("id").asText()));
+            }
+            cursor = body.get("next").isNull() ? null : body.get("next").asText();
+        } while (cursor != null);
+
+        assertThat(new HashSet<>(ids)).hasSize(ids.size());
+        assertThat(ids).hasSize((int) patientRepository.count());
+        // Registration dates are not in the response; look them up
+        Map<UUID, LocalDate> registered = patientRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Patient::getId, Patient::getRegisteredDate));
+        assertThat(ids.stream().map(registered::get).toList()).isSorted();
+    }
+
+    @Test
+    void rejectsACursorItDidNotIssue() throws Exception {
+        mockMvc.perform(get("/patients").param("limit", "3").param("cursor", "bm90LWEtY3Vyc29y"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("cursor is invalid, restart from the first page"));
+    }
+
+    @Test
+    void streamsEveryPatientAsOneJsonLineEach() throws Exception {
+        MvcResult stream = mockMvc.perform(get("/patients/stream").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(stream))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        Set<String> ids = new HashSet<>();
+        for (String line : body.lines().toList()) {
+            ids.add(objectMapper.readTree(line).get("id").asText());
+        }
+        assertThat(ids).hasSize((int) patientRepository.count());
+    }
+}
@@ -0,0 +1,111 @@
+package com.pm.patientservice.controller;
+
+import com.pm.patientservice.dto.PatientRequestDTO;
+import com.pm.patientservice.dto.PatientResponseDTO;
+import com.pm.patientservice.service.PatientService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import patient.Patient;
+import patient.PatientList;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "outbox.relay.enabled=false")
+@AutoConfigureMockMvc
+class PatientControllerProtobufTests {
+
+    private static final MediaType PROTOBUF = MediaType.parseMediaType("application/x-protobuf");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PatientService patientService;
+
+    private PatientResponseDTO created;
+
+    @BeforeEach
+    void createPatient() {
+        PatientRequestDTO request = new PatientRequestDTO();
+        request.setName("Proto Patient");
+        request.setEmail("proto-" + System.nanoTime() + "@example.com");
+        request.setAddress("1 Binary Way");
+        request.setDateOfBirth("1990-02-03");
+        request.setRegisteredDate("2024-01-01");
+        created = patientService.createPatient(request);
+    }
+
+    @Test
+    void listStaysJsonByDefault() throws Exception {
+        mockMvc.perform(get("/patients"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+        mockMvc.perform(get("/patients").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void listIsProtobufWhenAsked() throws Exception {
+        byte[] body = mockMvc.perform(get("/patients").accept(PROTOBUF))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(PROTOBUF))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(PatientList.parseFrom(body).getPatientsList())
+                .anySatisfy(patient -> assertThat(patient).isEqualTo(expected()));
+    }
+
+    @Test
+    void singlePatientIsProtobufWhenAsked() throws Exception {
+        byte[] body = mockMvc.perform(get("/patients/{id}", created.getId()).accept(PROTOBUF))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(Patient.parseFrom(body)).isEqualTo(expected());
+    }
+
+    @Test
+    void streamIsLengthDelimitedProtobuf() throws Exception {
+        MvcResult started = mockMvc.perform(get("/patients/stream").accept(PROTOBUF))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        byte[] body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(PROTOBUF))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        List<Patient> patients = new ArrayList<>();
+        ByteArrayInputStream in = new ByteArrayInputStream(body);
+        Patient patient;
+        while ((patient = Patient.parseDelimitedFrom(in)) != null) {
+            patients.add(patient);
+        }
+        assertThat(patients).contains(expected());
+    }
+
+    private Patient expected() {
+        return Patient.newBuilder()
+                .setId(created.getId())
+                .setName(created.getName())
+                .setEmail(created.getEmail())
+                .setAddress(created.getAddress())
+                .setDateOfBirth(created.getDateOfBirth())
+                .build();
+    }
+}
@@ -0,0 +1,90 @@
+package com.pm.patientservice.controller;
+
+import com.pm.patientservice.dto.PatientRequestDTO;
+import com.pm.patientservice.service.PatientService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Locale;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "outbox.relay.enabled=false")
+@AutoConfigureMockMvc
+class PatientControllerSearchTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PatientService patientService;
+
+    // Unique per test, so patients created by other tests never match
+    private String prefix;
+
+    @BeforeEach
+    void createPatients() {
+        prefix = "Srch" + System.nanoTime();
+        create(prefix + " Bob", "bob", "1990-05-05", "2024-02-10");
+        create(prefix + " Ann", "ann", "1980-05-05", "2024-01-10");
+        create("Carl Email-Only", prefix.toLowerCase(Locale.ROOT) + "-carl", "2000-01-01", "2024-03-10");
+    }
+
+    @Test
+    void matchesANameOrEmailPrefixIgnoringCaseInNameOrder() throws Exception {
+        mockMvc.perform(get("/patients/search").param("q", prefix.toUpperCase(Locale.ROOT)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].name",
+                        containsInAnyOrder(prefix + " Ann", prefix + " Bob", "Carl Email-Only")));
+
+        // Bob was created first
+        mockMvc.perform(get("/patients/search").param("q", prefix).param("dobTo", "1995-12-31"))
+                .andExpect(jsonPath("$[*].name", contains(prefix + " Ann", prefix + " Bob")));
+    }
+
+    @Test
+    void combinesThePrefixWithDateRanges() throws Exception {
+        mockMvc.perform(get("/patients/search").param("q", prefix).param("dobFrom", "1985-01-01"))
+                .andExpect(jsonPath("$[*].name", containsInAnyOrder(prefix + " Bob", "Carl Email-Only")));
+
+        mockMvc.perform(get("/patients/search").param("q", prefix)
+                        .param("dobFrom", "1985-01-01").param("dobTo", "1995-12-31"))
+                .andExpect(jsonPath("$[*].name", contains(prefix + " Bob")));
+
+        mockMvc.perform(get("/patients/search").param("q", prefix).param("registeredTo", "2024-01-10"))
+                .andExpect(jsonPath("$[*].name", contains(prefix + " Ann")));
+    }
+
+    @Test
+    void typedWildcardsMatchOnlyThemselves() throws Exception {
+        mockMvc.perform(get("/patients/search").param("q", prefix + "%"))
+                .andExpect(jsonPath("$", hasSize(0)));
+        mockMvc.perform(get("/patients/search").param("q", prefix + "_Ann"))
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    void returnsAtMostLimitMatches() throws Exception {
+        mockMvc.perform(get("/patients/search").param("q", prefix).param("limit", "2"))
+                .andExpect(jsonPath("$", hasSize(2)));
+    }
+
+    private void create(String name, String emailLocalPart, String dateOfBirth, String registeredDate) {
+        PatientRequestDTO request = new PatientRequestDTO();
+        request.setName(name);
+        request.setEmail(emailLocalPart + "-" + System.nanoTime() + "@example.com");
+        request.setAddress("1 Search Street");
+        request.setDateOfBirth(dateOfBirth);
+        request.setRegisteredDate(registeredDate);
+        patientService.createPatient(request);
+    }
+}
@@ -0,0 +1,86 @@
+package com.pm.patientservice.controller;
+
+import com.pm.patientservice.dto.PatientRequestDTO;
+import com.pm.patientservice.dto.PatientResponseDTO;
+import com.pm.patientservice.repository.OutboxEventRepository;
+import com.pm.patientservice.repository.PatientRepository;
+import com.pm.patientservice.service.PatientService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "outbox.relay.enabled=false")
+@AutoConfigureMockMvc
+class PatientControllerUniqueEmailTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Test
+    void registeringATakenEmailIsABadRequestAndWritesNothing() throws Exception {
+        PatientResponseDTO existing = patientService.createPatient(request("unique-create"));
+        long patients = patientRepository.count();
+        long events = outboxEventRepository.count();
+
+        mockMvc.perform(post("/patients")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body(existing.getEmail())))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("email already exists"));
+
+        assertThat(patientRepository.count()).isEqualTo(patients);
+        assertThat(outboxEventRepository.count()).isEqualTo(events);
+    }
+
+    @Test
+    void movingAPatientToAnotherPatientsEmailIsABadRequest() throws Exception {
+        PatientResponseDTO taken = patientService.createPatient(request("unique-taken"));
+        PatientResponseDTO moving = patientService.createPatient(request("unique-moving"));
+
+        mockMvc.perform(put("/patients/{id}", moving.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body(taken.getEmail())))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("email already exists"));
+
+        assertThat(patientService.getPatient(UUID.fromString(moving.getId())).getEmail())
+                .isEqualTo(moving.getEmail());
+    }
+
+    private static PatientRequestDTO request(String prefix) {
+        PatientRequestDTO request = new PatientRequestDTO();
+        request.setName("Unique Patient");
+        request.setEmail(prefix + "-" + System.nanoTime() + "@example.com");
+        request.setAddress("1 Unique Way");
+        request.setDateOfBirth("1988-08-08");
+        request.setRegisteredDate("2024-01-01");
+        return request;
+    }
+
+    private static String body(String email) {
+        return """
+                {"name": "Unique Patient", "email": "%s", "address": "2 Unique Way",
+                 "dateOfBirth": "1988-08-08", "registeredDate": "2024-01-01"}
+                """.formatted(email);
+    }
+}
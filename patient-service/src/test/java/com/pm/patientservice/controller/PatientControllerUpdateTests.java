@@ -0,0 +1,112 @@
+package com.pm.patientservice.controller;
+
+import com.pm.patientservice.dto.PatientRequestDTO;
+import com.pm.patientservice.dto.PatientResponseDTO;
+import com.pm.patientservice.repository.OutboxEventRepository;
+import com.pm.patientservice.service.PatientService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "outbox.relay.enabled=false")
+@AutoConfigureMockMvc
+class PatientControllerUpdateTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    private PatientResponseDTO created;
+
+    @BeforeEach
+    void createPatient() {
+        PatientRequestDTO request = new PatientRequestDTO();
+        request.setName("Patch Patient");
+        request.setEmail("patch-" + System.nanoTime() + "@example.com");
+        request.setAddress("1 Old Road");
+        request.setDateOfBirth("1980-04-05");
+        request.setRegisteredDate("2024-01-01");
+        created = patientService.createPatient(request);
+    }
+
+    @Test
+    void patchChangesOnlyGivenFieldsAndBumpsVersion() throws Exception {
+        mockMvc.perform(patch("/patients/{id}", created.getId())
+                        .header(HttpHeaders.IF_MATCH, "W/\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"address\": \"2 New Road\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"1\""))
+                .andExpect(jsonPath("$.address").value("2 New Road"))
+                .andExpect(jsonPath("$.name").value(created.getName()))
+                .andExpect(jsonPath("$.email").value(created.getEmail()))
+                .andExpect(jsonPath("$.version").doesNotExist());
+    }
+
+    @Test
+    void unchangedValuesWriteNothing() throws Exception {
+        long events = outboxEventRepository.count();
+
+        mockMvc.perform(patch("/patients/{id}", created.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"" + created.getName() + "\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"0\""));
+
+        assertThat(outboxEventRepository.count()).isEqualTo(events);
+    }
+
+    @Test
+    void staleIfMatchIsAConflict() throws Exception {
+        mockMvc.perform(patch("/patients/{id}", created.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"address\": \"3 Other Road\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(put("/patients/{id}", created.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"name": "Stale", "email": "%s", "address": "4 Lost Road", "dateOfBirth": "1980-04-05"}
+                                """.formatted(created.getEmail())))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").exists());
+    }
+
+    @Test
+    void blankPatchFieldIsRejected() throws Exception {
+        mockMvc.perform(patch("/patients/{id}", created.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"  \"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.name").exists());
+    }
+
+    @Test
+    void malformedPatchDateIsRejected() throws Exception {
+        for (String dateOfBirth : new String[]{"31/12/1990", "1990-02-30"}) {
+            mockMvc.perform(patch("/patients/{id}", created.getId())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"dateOfBirth\": \"" + dateOfBirth + "\"}"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.dateOfBirth").value("Date of birth must use the yyyy-MM-dd format"));
+        }
+    }
+}
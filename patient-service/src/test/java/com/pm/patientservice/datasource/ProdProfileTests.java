@@ -0,0 +1,104 @@
+package com.pm.patientservice.datasource;
+
+import com.pm.patientservice.model.Patient;
+import com.pm.patientservice.repository.PatientRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Boots the prod profile against embedded H2 in PostgreSQL mode and checks that its
+ * pool, driver and Hibernate settings actually reach the running components.
+ * Only the Postgres-only search index script is left out.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:prod-profile;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        // H2 has no pg_trgm, so leave out the Postgres-only search indexes
+        "spring.sql.init.schema-locations=classpath:schema.sql",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=warn",
+        "outbox.relay.enabled=false"})
+@ActiveProfiles("prod")
+class ProdProfileTests {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Test
+    void poolIsSizedFromCoresAndPassesDriverSettings() {
+        HikariDataSource hikari = (HikariDataSource) dataSource;
+
+        assertThat(hikari.getMaximumPoolSize())
+                .isEqualTo(DataSourcePoolConfig.poolSize(Runtime.getRuntime().availableProcessors(), 2));
+        assertThat(hikari.getDataSourceProperties())
+                .containsEntry("prepareThreshold", "1")
+                .containsEntry("preparedStatementCacheQueries", "512")
+                .containsEntry("reWriteBatchedInserts", "true");
+    }
+
+    @Test
+    void hibernateSettingsAreApplied() {
+        assertThat(entityManagerFactory.getProperties())
+                .containsEntry("hibernate.jdbc.batch_size", "500")
+                .containsEntry("hibernate.order_inserts", "true")
+                .containsEntry("hibernate.order_updates", "true")
+                .containsEntry("hibernate.query.plan_cache_max_size", "4096")
+                .containsEntry("hibernate.query.in_clause_parameter_padding", "true");
+    }
+
+    @Test
+    void openInViewIsOff() {
+        assertThat(context.getBeanNamesForType(OpenEntityManagerInViewInterceptor.class)).isEmpty();
+    }
+
+    @Test
+    void insertsAreSentAsBatches() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<Patient> patients = IntStream.range(0, 1000).mapToObj(i -> patient()).toList();
+
+        statistics.clear();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> patientRepository.saveAll(patients));
+
+        // Two batches of 500 share one prepared INSERT each, instead of 1000 statements
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+    }
+
+    private static Patient patient() {
+        Patient patient = new Patient();
+        patient.setName("Batch Patient");
+        patient.setEmail("batch-" + UUID.randomUUID() + "@example.com");
+        patient.setAddress("1 Pool Street");
+        patient.setDateOfBirth(LocalDate.of(1980, 1, 1));
+        patient.setRegisteredDate(LocalDate.of(2024, 1, 1));
+        return patient;
+    }
+}
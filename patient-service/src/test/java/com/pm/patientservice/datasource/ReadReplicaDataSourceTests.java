@@ -0,0 +1,118 @@
+package com.pm.patientservice.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.when;
+
+class ReadReplicaDataSourceTests {
+
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection firstConnection = mock(Connection.class);
+    private final Connection secondConnection = mock(Connection.class);
+
+    private final DataSource primary = dataSource(primaryConnection);
+    private final DataSource first = dataSource(firstConnection);
+    private final DataSource second = dataSource(secondConnection);
+
+    private final ReadReplicaDataSource replicas =
+            new ReadReplicaDataSource(primary, List.of(first, second), Duration.ZERO);
+
+    @AfterEach
+    void close() {
+        replicas.close();
+    }
+
+    @Test
+    void spreadsConnectionsRoundRobin() throws SQLException {
+        assertThat(List.of(replicas.getConnection(), replicas.getConnection(), replicas.getConnection()))
+                .containsExactly(firstConnection, secondConnection, firstConnection);
+    }
+
+    @Test
+    void ejectsFailingReplicasAndFallsBackToThePrimary() throws SQLException {
+        when(first.getConnection()).thenThrow(new SQLException("connection refused", "08001"));
+
+        assertThat(replicas.getConnection()).isSameAs(secondConnection);
+        assertThat(replicas.getConnection()).isSameAs(secondConnection);
+        assertThat(replicas.healthyReplicas()).isEqualTo(1);
+
+        when(second.getConnection()).thenThrow(new SQLException("connection refused", "08001"));
+        assertThat(replicas.getConnection()).isSameAs(primaryConnection);
+        assertThat(replicas.healthyReplicas()).isZero();
+    }
+
+    @Test
+    void keepsABusyReplicaInRotation() throws SQLException {
+        SQLTransientConnectionException poolTimeout = new SQLTransientConnectionException(
+                "replica-0 - Connection is not available, request timed out after 30000ms.");
+        when(first.getConnection()).thenThrow(poolTimeout);
+
+        assertThatThrownBy(replicas::getConnection).isSameAs(poolTimeout);
+        assertThat(replicas.healthyReplicas()).isEqualTo(2);
+
+        replicas.checkReplicas();
+        assertThat(replicas.healthyReplicas()).isEqualTo(2);
+    }
+
+    @Test
+    void ejectsAReplicaWhosePoolCannotConnect() throws SQLException {
+        // How Hikari reports a pool that timed out because the database refused every connection
+        SQLException refused = new SQLException("Connection refused", "08001");
+        when(first.getConnection()).thenThrow(new SQLTransientConnectionException(
+                "replica-0 - Connection is not available, request timed out after 30000ms.",
+                refused.getSQLState(), refused));
+
+        assertThat(replicas.getConnection()).isSameAs(secondConnection);
+        assertThat(replicas.healthyReplicas()).isEqualTo(1);
+    }
+
+    @Test
+    void healthCheckEjectsAndReadmitsReplicas() throws SQLException {
+        when(firstConnection.isValid(anyInt())).thenReturn(false);
+        replicas.checkReplicas();
+        assertThat(replicas.healthyReplicas()).isEqualTo(1);
+        assertThat(replicas.getConnection()).isSameAs(secondConnection);
+        assertThat(replicas.getConnection()).isSameAs(secondConnection);
+
+        reset(firstConnection);
+        when(firstConnection.isValid(anyInt())).thenReturn(true);
+        replicas.checkReplicas();
+        assertThat(replicas.healthyReplicas()).isEqualTo(2);
+    }
+
+    @Test
+    void usesThePrimaryWhenTheCallerNeedsItsOwnWrites() {
+        Connection connection = ReadRouting.onPrimary(() -> {
+            try {
+                return replicas.getConnection();
+            } catch (SQLException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        assertThat(connection).isSameAs(primaryConnection);
+    }
+
+    private static DataSource dataSource(Connection connection) {
+        DataSource dataSource = mock(DataSource.class);
+        try {
+            when(dataSource.getConnection()).thenReturn(connection);
+            when(connection.isValid(anyInt())).thenReturn(true);
+        } catch (SQLException ex) {
+            throw new IllegalStateException(ex);
+        }
+        return dataSource;
+    }
+}
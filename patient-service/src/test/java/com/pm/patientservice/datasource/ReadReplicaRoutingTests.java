@@ -0,0 +1,142 @@
+package com.pm.patientservice.datasource;
+
+import com.pm.patientservice.dto.PatientRequestDTO;
+import com.pm.patientservice.dto.PatientSummaryDTO;
+import com.pm.patientservice.service.PatientService;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Two embedded H2 databases stand in for primary and replica. Nothing replicates between
+ * them, so where a read went shows in what it finds.
+ */
+@SpringBootTest(properties = {
+        "patient.datasource.replicas[0]=" + ReadReplicaRoutingTests.REPLICA_URL,
+        "patient.datasource.replica-check-interval=0s",
+        "outbox.relay.enabled=false"})
+@AutoConfigureMockMvc
+class ReadReplicaRoutingTests {
+
+    static final String REPLICA_URL =
+            "jdbc:h2:mem:read-replica;DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:schema.sql'";
+
+    private static final String REPLICA_ONLY_EMAIL = "replica-only@example.com";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    // Same user as the pool, which is the owner of a database it did not create
+    @BeforeAll
+    static void seedReplica() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    MERGE INTO patient (id, name, email, address, date_of_birth, registered_date)
+                    KEY (id) VALUES ('00000000-0000-7000-8000-000000000001', 'Replica Only',
+                    'replica-only@example.com', '1 Copy Lane', DATE '1980-01-01', DATE '2024-01-01')
+                    """);
+        }
+    }
+
+    @Test
+    void replicaConnectionsGoToTheReplica() throws SQLException {
+        assertThat(dataSource).isInstanceOf(ReadWriteRoutingDataSource.class);
+        assertThat(dataSource.unwrap(HikariDataSource.class).getJdbcUrl()).doesNotContain("read-replica");
+
+        try (Connection connection = ((ReadWriteRoutingDataSource) dataSource).getReplicas().getConnection()) {
+            assertThat(connection.getMetaData().getURL()).startsWith("jdbc:h2:mem:read-replica");
+        }
+    }
+
+    @Test
+    void readOnlyTransactionsRunOnTheReplica() {
+        String email = create("routing");
+
+        assertThat(patientService.getPatients()).extracting(PatientSummaryDTO::email)
+                .contains(REPLICA_ONLY_EMAIL)
+                .doesNotContain(email);
+        assertThat(ReadRouting.onPrimary(patientService::getPatients)).extracting(PatientSummaryDTO::email)
+                .contains(email)
+                .doesNotContain(REPLICA_ONLY_EMAIL);
+    }
+
+    @Test
+    void clientReadsItsOwnWritesRightAfterWriting() throws Exception {
+        String email = "rw-" + System.nanoTime() + "@example.com";
+        Cookie cookie = mockMvc.perform(post("/patients")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"name": "Read Your Writes", "email": "%s", "address": "2 Primary Road",
+                                 "dateOfBirth": "1991-05-06", "registeredDate": "2024-03-04"}
+                                """.formatted(email)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getCookie(ReadYourWritesFilter.COOKIE);
+        assertThat(cookie).isNotNull();
+
+        String otherClient = mockMvc.perform(get("/patients"))
+                .andReturn().getResponse().getContentAsString();
+        String sameClient = mockMvc.perform(get("/patients").cookie(cookie))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(otherClient).contains(REPLICA_ONLY_EMAIL).doesNotContain(email);
+        assertThat(sameClient).contains(email).doesNotContain(REPLICA_ONLY_EMAIL);
+    }
+
+    @Test
+    void streamedResponsesKeepTheClientOnThePrimary() throws Exception {
+        String email = "rw-stream-" + System.nanoTime() + "@example.com";
+        Cookie cookie = mockMvc.perform(post("/patients")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"name": "Streamed Writes", "email": "%s", "address": "3 Primary Road",
+                                 "dateOfBirth": "1992-07-08", "registeredDate": "2024-03-04"}
+                                """.formatted(email)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getCookie(ReadYourWritesFilter.COOKIE);
+
+        MvcResult stream = mockMvc.perform(get("/patients/stream").accept(MediaType.APPLICATION_NDJSON).cookie(cookie))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String streamed = mockMvc.perform(asyncDispatch(stream))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(streamed).contains(email).doesNotContain(REPLICA_ONLY_EMAIL);
+    }
+
+    private String create(String name) {
+        PatientRequestDTO request = new PatientRequestDTO();
+        request.setName(name);
+        request.setEmail(name + "-" + System.nanoTime() + "@example.com");
+        request.setAddress("1 Primary Road");
+        request.setDateOfBirth("1990-01-01");
+        request.setRegisteredDate("2024-01-01");
+        return patientService.createPatient(request).getEmail();
+    }
+}
@@ -0,0 +1,159 @@
+package com.pm.patientservice.grpc;
+
+import billing.BillingBatchSummary;
+import billing.BillingRequest;
+import billing.BillingServiceGrpc;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ManagedChannel;
+import io.grpc.MethodDescriptor;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BillingServiceGrpcClientTests {
+
+    private static final int MAX_IN_FLIGHT = 2;
+
+    private final StandInBillingService billingService = new StandInBillingService();
+    private Server server;
+    private BillingServiceGrpcClient client;
+
+    @BeforeEach
+    void start() throws Exception {
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name)
+                .addService(billingService)
+                .build()
+                .start();
+
+        List<ManagedChannel> channels = List.of(
+                InProcessChannelBuilder.forName(name).build(),
+                InProcessChannelBuilder.forName(name).build());
+        client = new BillingServiceGrpcClient(channels, 50, Duration.ofMillis(5), MAX_IN_FLIGHT, 10_000);
+    }
+
+    @AfterEach
+    void stop() throws Exception {
+        client.close();
+        server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void coalescesConcurrentRequestsIntoBoundedBatches() throws Exception {
+        List<CompletableFuture<Void>> results = IntStream.range(0, 2_000).parallel()
+                .mapToObj(i -> client.createBillingAccount("patient-" + i, "Patient " + i, i + "@example.com"))
+                .toList();
+
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+
+        assertThat(billingService.patientIds).hasSize(2_000);
+        assertThat(billingService.calls.get()).isLessThan(2_000);
+        assertThat(billingService.maxConcurrentCalls.get()).isLessThanOrEqualTo(MAX_IN_FLIGHT);
+    }
+
+    @Test
+    void failsFuturesWhenBillingIsUnavailable() throws Exception {
+        server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+
+        CompletableFuture<Void> result = client.createBillingAccount("patient-1", "Patient", "p@example.com");
+
+        assertThat(result).failsWithin(Duration.ofSeconds(10));
+    }
+
+    @Test
+    void keepsBatchingAfterABatchCouldNotBeSent() throws Exception {
+        // More failures than in-flight permits: a leaked permit would stall every later batch
+        AtomicInteger failuresLeft = new AtomicInteger(MAX_IN_FLIGHT + 1);
+        ClientInterceptor failing = new ClientInterceptor() {
+            @Override
+            public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
+                    MethodDescriptor<ReqT, RespT> method, CallOptions callOptions, Channel next) {
+                if (failuresLeft.getAndDecrement() > 0) {
+                    throw new IllegalStateException("interceptor failure");
+                }
+                return next.newCall(method, callOptions);
+            }
+        };
+        String name = InProcessServerBuilder.generateName();
+        Server failingServer = InProcessServerBuilder.forName(name).addService(billingService).build().start();
+        try (BillingServiceGrpcClient failingClient = new BillingServiceGrpcClient(
+                List.of(InProcessChannelBuilder.forName(name).intercept(failing).build()),
+                50, Duration.ZERO, MAX_IN_FLIGHT, 100)) {
+
+            for (int i = 0; i <= MAX_IN_FLIGHT; i++) {
+                assertThat(failingClient.createBillingAccount("failed-" + i, "Patient", "f@example.com"))
+                        .failsWithin(Duration.ofSeconds(10))
+                        .withThrowableOfType(ExecutionException.class)
+                        .withCauseInstanceOf(IllegalStateException.class);
+            }
+
+            failingClient.createBillingAccount("patient-after", "Patient", "a@example.com").get(10, TimeUnit.SECONDS);
+            assertThat(billingService.patientIds).containsExactly("patient-after");
+            assertThat(failingClient.inFlightCalls()).isZero();
+        } finally {
+            failingServer.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Stand-in for BillingGrpcService that records what it receives and how many
+     * streams are open at the same time.
+     */
+    private static class StandInBillingService extends BillingServiceGrpc.BillingServiceImplBase {
+
+        final Set<String> patientIds = ConcurrentHashMap.newKeySet();
+        final AtomicInteger calls = new AtomicInteger();
+        final AtomicInteger openCalls = new AtomicInteger();
+        final AtomicInteger maxConcurrentCalls = new AtomicInteger();
+
+        @Override
+        public StreamObserver<BillingRequest> createBillingAccounts(StreamObserver<BillingBatchSummary> responseObserver) {
+            calls.incrementAndGet();
+            maxConcurrentCalls.accumulateAndGet(openCalls.incrementAndGet(), Math::max);
+
+            return new StreamObserver<>() {
+                private int received;
+
+                @Override
+                public void onNext(BillingRequest request) {
+                    patientIds.add(request.getPatientId());
+                    received++;
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    openCalls.decrementAndGet();
+                }
+
+                @Override
+                public void onCompleted() {
+                    openCalls.decrementAndGet();
+                    responseObserver.onNext(BillingBatchSummary.newBuilder()
+                            .setReceived(received)
+                            .setCreated(received)
+                            .build());
+                    responseObserver.onCompleted();
+                }
+            };
+        }
+    }
+}
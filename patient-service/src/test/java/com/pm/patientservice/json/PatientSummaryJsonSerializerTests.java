@@ -0,0 +1,55 @@
+package com.pm.patientservice.json;
+
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.pm.patientservice.dto.PatientSummaryDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PatientSummaryJsonSerializerTests {
+
+    private static final List<PatientSummaryDTO> PATIENTS = List.of(
+            new PatientSummaryDTO(UUID.fromString("123e4567-e89b-12d3-a456-426614174000"),
+                    "John Doe", "john.doe@example.com", "123 Main St, Springfield", LocalDate.of(1985, 6, 15)),
+            new PatientSummaryDTO(new UUID(0, 0), "Zoë \"Q\" O'Brien\n", "zoe@example.com",
+                    "Straße 1\t\\ €", LocalDate.of(1, 1, 1)),
+            new PatientSummaryDTO(new UUID(-1, -1), null, null, null, null),
+            new PatientSummaryDTO(null, "Far Future", "x@example.com", "", LocalDate.of(12345, 12, 31)),
+            new PatientSummaryDTO(UUID.randomUUID(), "Random", "r@example.com", "r", LocalDate.of(-44, 3, 15)));
+
+    @Test
+    void writesTheSameBytesAsTheDefaultBinding() throws Exception {
+        // Spring Boot's ObjectMapper writes dates as ISO text
+        assertSameOutput(Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+    }
+
+    @Test
+    void followsTheDateTimestampSetting() throws Exception {
+        assertSameOutput(Jackson2ObjectMapperBuilder.json()
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+    }
+
+    private static void assertSameOutput(Jackson2ObjectMapperBuilder builder) throws Exception {
+        ObjectMapper objectMapper = builder.build();
+        // Same configuration with the default record binding in place of the custom serializer
+        ObjectMapper defaultBinding = builder.mixIn(PatientSummaryDTO.class, DefaultBinding.class).build();
+
+        assertThat(objectMapper.writeValueAsBytes(PATIENTS))
+                .isEqualTo(defaultBinding.writeValueAsBytes(PATIENTS));
+        assertThat(objectMapper.writeValueAsString(PATIENTS))
+                .isEqualTo(defaultBinding.writeValueAsString(PATIENTS));
+    }
+
+    @JsonSerialize(using = JsonSerializer.None.class)
+    private interface DefaultBinding {
+    }
+}
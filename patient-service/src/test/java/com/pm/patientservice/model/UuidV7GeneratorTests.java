@@ -0,0 +1,59 @@
+package com.pm.patientservice.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7GeneratorTests {
+
+    @Test
+    void usesTheVersion7LayoutWithTheCurrentTime() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7Generator.next();
+        long after = System.currentTimeMillis();
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        // A burst from another test may have carried the counter a few milliseconds ahead
+        assertThat(id.getMostSignificantBits() >>> 16).isBetween(before, after + 50);
+    }
+
+    @Test
+    void idsIncreaseEvenWithinOneMillisecond() {
+        List<String> ids = IntStream.range(0, 10_000)
+                .mapToObj(i -> UuidV7Generator.next().toString())
+                .toList();
+
+        // Fixed-width lowercase hex: string order is the byte order a database index uses
+        assertThat(ids).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    void concurrentCallersNeverGetTheSameId() throws Exception {
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            List<Future<?>> callers = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                callers.add(executor.submit(() -> {
+                    for (int j = 0; j < 5_000; j++) {
+                        ids.add(UuidV7Generator.next());
+                    }
+                }));
+            }
+            for (Future<?> caller : callers) {
+                caller.get();
+            }
+        }
+        assertThat(ids).hasSize(8 * 5_000);
+    }
+}
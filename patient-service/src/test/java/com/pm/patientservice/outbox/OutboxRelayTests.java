@@ -0,0 +1,191 @@
+package com.pm.patientservice.outbox;
+
+import com.pm.patientservice.dto.PatientRequestDTO;
+import com.pm.patientservice.dto.PatientResponseDTO;
+import com.pm.patientservice.exception.EmailAlreadyExistsException;
+import com.pm.patientservice.model.OutboxEvent;
+import com.pm.patientservice.model.OutboxEventType;
+import com.pm.patientservice.repository.OutboxEventRepository;
+import com.pm.patientservice.service.PatientService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "outbox.sink.billing.enabled=false",
+        "outbox.sink.in-memory.enabled=true",
+        // Long poll interval: delivery within the test relies on the commit notification
+        "outbox.relay.poll-interval=1m",
+        // Failed events are due again at once and parked after a few attempts
+        "outbox.relay.retry-backoff=0s",
+        "outbox.relay.max-attempts=3"
+})
+class OutboxRelayTests {
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private InMemoryOutboxSink sink;
+
+    @Autowired
+    private OutboxRelay relay;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private TransactionProbeSink transactionProbe;
+
+    @BeforeEach
+    void clearSink() {
+        sink.clear();
+    }
+
+    @Test
+    void relaysPatientEventsInCommitOrder() throws Exception {
+        PatientResponseDTO created = patientService.createPatient(request("outbox-order@example.com"));
+        UUID id = UUID.fromString(created.getId());
+        patientService.updatePatient(id, request("outbox-order-updated@example.com"), null);
+        patientService.deletePatient(id);
+
+        List<OutboxEvent> delivered = awaitDelivered(3);
+
+        assertThat(delivered).extracting(OutboxEvent::getAggregateId).containsOnly(id);
+        assertThat(delivered).extracting(OutboxEvent::getEventType).containsExactly(
+                OutboxEventType.PATIENT_CREATED, OutboxEventType.PATIENT_UPDATED, OutboxEventType.PATIENT_DELETED);
+        assertThat(delivered.get(1).getPayload()).contains("outbox-order-updated@example.com");
+        assertThat(relay.getBacklog()).isZero();
+    }
+
+    @Test
+    void rolledBackChangeLeavesNoEvent() throws Exception {
+        patientService.createPatient(request("outbox-duplicate@example.com"));
+        awaitDelivered(1);
+        sink.clear();
+
+        assertThatThrownBy(() -> patientService.createPatient(request("outbox-duplicate@example.com")))
+                .isInstanceOf(EmailAlreadyExistsException.class);
+
+        assertThat(relay.relayBatch()).isZero();
+        assertThat(sink.getDelivered()).isEmpty();
+    }
+
+    @Test
+    void failingEventIsParkedAndHoldsBackOnlyItsOwnPatient() throws Exception {
+        PatientResponseDTO poisoned = patientService.createPatient(request("outbox-poison@example.com"));
+        UUID poisonedId = UUID.fromString(poisoned.getId());
+        sink.failWhen(event -> event.getAggregateId().equals(poisonedId));
+        try {
+            patientService.updatePatient(poisonedId, request("outbox-poison-updated@example.com"), null);
+            PatientResponseDTO healthy = patientService.createPatient(request("outbox-healthy@example.com"));
+
+            List<OutboxEvent> delivered = awaitDelivered(1);
+            assertThat(delivered).extracting(OutboxEvent::getAggregateId)
+                    .containsExactly(UUID.fromString(healthy.getId()));
+
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (relay.getParkedBacklog() == 0 && System.nanoTime() < deadline) {
+                relay.relayBatch();
+            }
+            assertThat(relay.getParkedBacklog()).isEqualTo(1);
+            // The update waits behind the parked create instead of overtaking it
+            assertThat(relay.relayBatch()).isZero();
+            assertThat(relay.getBacklog()).isEqualTo(1);
+            assertThat(sink.getDelivered()).extracting(OutboxEvent::getAggregateId).doesNotContain(poisonedId);
+        } finally {
+            outboxEventRepository.deleteAllInBatch(outboxEventRepository.findAll().stream()
+                    .filter(event -> event.getAggregateId().equals(poisonedId))
+                    .toList());
+        }
+    }
+
+    @Test
+    void patientEventsFollowTheirVersionNotTheirId() throws Exception {
+        UUID patientId = UUID.randomUUID();
+        // Written by two instances with different id blocks: the later change got the lower id
+        outboxEventRepository.saveAll(List.of(
+                event(patientId, OutboxEventType.PATIENT_UPDATED, 2),
+                event(patientId, OutboxEventType.PATIENT_CREATED, 0)));
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (sink.getDelivered().size() < 2 && System.nanoTime() < deadline) {
+            relay.relayBatch();
+        }
+
+        assertThat(sink.getDelivered()).extracting(OutboxEvent::getEventType)
+                .containsExactly(OutboxEventType.PATIENT_CREATED, OutboxEventType.PATIENT_UPDATED);
+    }
+
+    @Test
+    void sinksRunOutsideTheClaimingTransaction() throws Exception {
+        patientService.createPatient(request("outbox-no-transaction@example.com"));
+        awaitDelivered(1);
+
+        assertThat(transactionProbe.sawTransaction).isFalse();
+        assertThat(transactionProbe.deliveries).isPositive();
+    }
+
+    private static OutboxEvent event(UUID patientId, OutboxEventType type, long version) {
+        OutboxEvent event = new OutboxEvent();
+        event.setAggregateId(patientId);
+        event.setEventType(type);
+        event.setAggregateVersion(version);
+        event.setPayload("{}");
+        event.setCreatedAt(Instant.now());
+        return event;
+    }
+
+    private List<OutboxEvent> awaitDelivered(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (sink.getDelivered().size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        return sink.getDelivered();
+    }
+
+    private static PatientRequestDTO request(String email) {
+        PatientRequestDTO request = new PatientRequestDTO();
+        request.setName("Outbox Patient");
+        request.setEmail(email);
+        request.setAddress("1 Relay Road");
+        request.setDateOfBirth("1990-01-01");
+        request.setRegisteredDate("2024-01-01");
+        return request;
+    }
+
+    @TestConfiguration
+    static class TransactionProbeConfig {
+
+        @Bean
+        TransactionProbeSink transactionProbeSink() {
+            return new TransactionProbeSink();
+        }
+    }
+
+    // Records whether any delivery happened inside a transaction, i.e. while holding a connection
+    static class TransactionProbeSink implements OutboxSink {
+
+        volatile boolean sawTransaction;
+        volatile int deliveries;
+
+        @Override
+        public List<OutboxEvent> deliver(List<OutboxEvent> events) {
+            sawTransaction |= TransactionSynchronizationManager.isActualTransactionActive();
+            deliveries++;
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.pm.patientservice.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.patientservice.dto.PatientSummaryDTO;
+import com.pm.patientservice.mapper.PatientMapper;
+import com.pm.patientservice.model.Patient;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "outbox.relay.enabled=false")
+class PatientRepositoryProjectionTests {
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void summariesSerializeLikeTheMappedEntity() throws Exception {
+        Patient patient = patientRepository.save(patient("projection-json"));
+
+        PatientSummaryDTO summary = patientRepository.findAllSummaries().stream()
+                .filter(candidate -> candidate.id().equals(patient.getId()))
+                .findFirst().orElseThrow();
+
+        assertThat(objectMapper.writeValueAsString(summary))
+                .isEqualTo(objectMapper.writeValueAsString(PatientMapper.toDTO(patient)));
+    }
+
+    @Test
+    void projectionsLeaveThePersistenceContextEmpty() {
+        patientRepository.save(patient("projection-context"));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            List<PatientSummaryDTO> listed = patientRepository.findAllSummaries();
+            long streamed;
+            try (Stream<PatientSummaryDTO> summaries = patientRepository.streamAllSummaries()) {
+                streamed = summaries.count();
+            }
+
+            assertThat(listed).isNotEmpty().hasSize((int) streamed);
+            assertThat(entityManager.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+        });
+    }
+
+    private static Patient patient(String prefix) {
+        Patient patient = new Patient();
+        patient.setName("Projected Patient");
+        patient.setEmail(prefix + "-" + System.nanoTime() + "@example.com");
+        patient.setAddress("1 Projection Place");
+        patient.setDateOfBirth(LocalDate.of(1966, 6, 6));
+        patient.setRegisteredDate(LocalDate.of(2024, 1, 1));
+        return patient;
+    }
+}
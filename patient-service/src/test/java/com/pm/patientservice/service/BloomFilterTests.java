@@ -0,0 +1,48 @@
+package com.pm.patientservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class BloomFilterTests {
+
+    @Test
+    void neverForgetsAnAddedValue() {
+        BloomFilter filter = new BloomFilter(100_000, 0.01);
+        for (int i = 0; i < 100_000; i++) {
+            filter.add("patient" + i + "@example.com");
+        }
+        for (int i = 0; i < 100_000; i++) {
+            assertThat(filter.mightContain("patient" + i + "@example.com")).isTrue();
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheTargetWhenFull() {
+        int entries = 200_000;
+        BloomFilter filter = new BloomFilter(entries, 0.01);
+        for (int i = 0; i < entries; i++) {
+            filter.add("patient" + i + "@example.com");
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < entries; i++) {
+            if (filter.mightContain("other" + i + "@example.org")) {
+                falsePositives++;
+            }
+        }
+
+        assertThat((double) falsePositives / entries).isLessThan(0.015);
+        assertThat(filter.expectedFalsePositiveRate()).isCloseTo(0.01, within(0.001));
+    }
+
+    @Test
+    void tenMillionEmailsAtOnePercentFitInTwelveMegabytes() {
+        long bits = BloomFilter.optimalBitCount(10_000_000, 0.01);
+
+        assertThat(bits).isBetween(95_850_000L, 95_860_000L);
+        assertThat(BloomFilter.optimalHashCount(10_000_000, bits)).isEqualTo(7);
+        assertThat(bits / 8).isLessThan(12_000_000L);
+    }
+}
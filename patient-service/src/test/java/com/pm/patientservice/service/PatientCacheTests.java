@@ -0,0 +1,94 @@
+package com.pm.patientservice.service;
+
+import com.pm.patientservice.dto.PatientResponseDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PatientCacheTests {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void loadsOnAMissAndServesTheNextLookupFromTheCache() {
+        PatientCache cache = new PatientCache(100, Duration.ofMinutes(5));
+        UUID id = UUID.randomUUID();
+
+        assertThat(cache.get(id, this::found)).map(PatientResponseDTO::getId).contains(id.toString());
+        assertThat(cache.get(id, this::found)).map(PatientResponseDTO::getId).contains(id.toString());
+
+        assertThat(loads).hasValue(1);
+        assertThat(cache.stats().missCount()).isEqualTo(1);
+        assertThat(cache.stats().hitCount()).isEqualTo(1);
+        assertThat(cache.contains(id)).isTrue();
+    }
+
+    @Test
+    void unknownPatientsAreNotCached() {
+        PatientCache cache = new PatientCache(100, Duration.ofMinutes(5));
+        UUID id = UUID.randomUUID();
+
+        assertThat(cache.get(id, key -> missing())).isEmpty();
+        assertThat(cache.get(id, key -> missing())).isEmpty();
+
+        assertThat(loads).hasValue(2);
+        assertThat(cache.contains(id)).isFalse();
+    }
+
+    @Test
+    void invalidatedPatientsAreLoadedAgain() {
+        PatientCache cache = new PatientCache(100, Duration.ofMinutes(5));
+        UUID id = UUID.randomUUID();
+        cache.get(id, this::found);
+
+        cache.invalidate(id);
+
+        assertThat(cache.contains(id)).isFalse();
+        cache.get(id, this::found);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void evictsBeyondTheMaximumSize() throws InterruptedException {
+        PatientCache cache = new PatientCache(10, Duration.ofMinutes(5));
+        for (int i = 0; i < 100; i++) {
+            cache.get(UUID.randomUUID(), this::found);
+        }
+
+        // Caffeine evicts in the background
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (cache.size() > 10 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(cache.size()).isLessThanOrEqualTo(10);
+        assertThat(cache.stats().evictionCount()).isGreaterThanOrEqualTo(90);
+    }
+
+    @Test
+    void expiresEntriesAfterTheTtl() {
+        PatientCache cache = new PatientCache(100, Duration.ZERO);
+        UUID id = UUID.randomUUID();
+
+        cache.get(id, this::found);
+        cache.get(id, this::found);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    private Optional<PatientResponseDTO> found(UUID id) {
+        loads.incrementAndGet();
+        PatientResponseDTO patient = new PatientResponseDTO();
+        patient.setId(id.toString());
+        return Optional.of(patient);
+    }
+
+    private Optional<PatientResponseDTO> missing() {
+        loads.incrementAndGet();
+        return Optional.empty();
+    }
+}
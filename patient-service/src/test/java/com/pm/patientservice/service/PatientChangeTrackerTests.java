@@ -0,0 +1,53 @@
+package com.pm.patientservice.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "outbox.relay.enabled=false")
+class PatientChangeTrackerTests {
+
+    @Autowired
+    private PatientChangeTracker changeTracker;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void committedWritesMoveTheGenerationOnAndRolledBackOnesDoNot() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        long before = changeTracker.current().generation();
+
+        transaction.executeWithoutResult(status -> {
+            changeTracker.changed();
+            // The counter row is only written, and locked, while the transaction commits
+            assertThat(changeTracker.current().generation()).isEqualTo(before);
+        });
+        assertThat(changeTracker.current().generation()).isEqualTo(before + 1);
+
+        transaction.executeWithoutResult(status -> {
+            changeTracker.changed();
+            status.setRollbackOnly();
+        });
+        assertThat(changeTracker.current().generation()).isEqualTo(before + 1);
+    }
+
+    @Test
+    void writesThroughAnotherInstanceAreSeenAtOnce() {
+        PatientChangeTracker otherInstance = new PatientChangeTracker(jdbcTemplate);
+        PatientChangeTracker.Snapshot before = changeTracker.current();
+
+        otherInstance.changed();
+
+        assertThat(changeTracker.current().eTag()).isNotEqualTo(before.eTag());
+        assertThat(changeTracker.current()).isEqualTo(otherInstance.current());
+    }
+}
@@ -0,0 +1,43 @@
+package com.pm.patientservice.service;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PatientConstraintsTests {
+
+    @Test
+    void recognisesTheUniqueEmailIndexUnderEitherName() {
+        assertThat(PatientConstraints.isEmailUniqueViolation(violation("uk_patient_email", "23505"))).isTrue();
+        // Postgres' generated name on schemas created before the index was named
+        assertThat(PatientConstraints.isEmailUniqueViolation(violation("patient_email_key", "23505"))).isTrue();
+        // H2 names the index behind the constraint
+        assertThat(PatientConstraints.isEmailUniqueViolation(
+                violation("PUBLIC.UK_PATIENT_EMAIL_INDEX_F", "23505"))).isTrue();
+    }
+
+    @Test
+    void ignoresOtherConstraintsThatMentionEmail() {
+        assertThat(PatientConstraints.isEmailUniqueViolation(violation("ck_patient_email_format", "23514"))).isFalse();
+        assertThat(PatientConstraints.isEmailUniqueViolation(violation("uk_patient_email_alias", "23505"))).isFalse();
+        assertThat(PatientConstraints.isEmailUniqueViolation(violation("uk_patient_email", "23514"))).isFalse();
+    }
+
+    @Test
+    void ignoresOtherIntegrityViolations() {
+        assertThat(PatientConstraints.isEmailUniqueViolation(violation(null, "23502"))).isFalse();
+        assertThat(PatientConstraints.isEmailUniqueViolation(
+                new DataIntegrityViolationException("no Hibernate cause"))).isFalse();
+    }
+
+    private static DataIntegrityViolationException violation(String constraintName, String sqlState) {
+        SQLException root = new SQLException("violation of " + constraintName, sqlState);
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", root, "insert into patient",
+                        constraintName));
+    }
+}
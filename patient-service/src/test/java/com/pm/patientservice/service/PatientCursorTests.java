@@ -0,0 +1,45 @@
+package com.pm.patientservice.service;
+
+import com.pm.patientservice.exception.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PatientCursorTests {
+
+    @Test
+    void decodesWhatItEncodes() {
+        PatientCursor cursor = new PatientCursor(LocalDate.of(2024, 2, 29), UUID.randomUUID());
+
+        String token = cursor.encode();
+
+        // Safe in a query string as is
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+        assertThat(PatientCursor.decode(token)).isEqualTo(cursor);
+    }
+
+    @Test
+    void rejectsTokensItDidNotIssue() {
+        assertMalformed("not base64!");
+        assertMalformed(encode(""));
+        assertMalformed(encode("2024-01-01 123e4567-e89b-12d3-a456-426614174000"));
+        assertMalformed(encode("2024-13-01|123e4567-e89b-12d3-a456-426614174000"));
+        assertMalformed(encode("2024-01-01|not-a-uuid"));
+    }
+
+    private static void assertMalformed(String token) {
+        assertThatThrownBy(() -> PatientCursor.decode(token))
+                .isInstanceOf(InvalidCursorException.class)
+                .hasMessage("Malformed cursor: " + token);
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
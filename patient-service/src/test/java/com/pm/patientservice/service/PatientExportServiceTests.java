@@ -0,0 +1,49 @@
+package com.pm.patientservice.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "outbox.relay.enabled=false")
+class PatientExportServiceTests {
+
+    @Autowired
+    private PatientExportService patientExportService;
+
+    @Test
+    void aFailedExportIsRethrownWithoutFlushingTheResponse() {
+        ResetStream out = new ResetStream();
+
+        assertThatThrownBy(() -> patientExportService.export(PatientExportService.Format.CSV, false, out))
+                .isInstanceOf(IOException.class)
+                .hasMessage("connection reset");
+        assertThat(out.flushed).isFalse();
+    }
+
+    // Fails every write, like a client that went away mid-download
+    private static final class ResetStream extends OutputStream {
+
+        private boolean flushed;
+
+        @Override
+        public void write(int b) throws IOException {
+            throw new IOException("connection reset");
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            throw new IOException("connection reset");
+        }
+
+        @Override
+        public void flush() {
+            flushed = true;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.pm.patientservice.service;
+
+import com.pm.patientservice.dto.PatientImportResultDTO;
+import com.pm.patientservice.dto.PatientImportRowResultDTO;
+import com.pm.patientservice.dto.PatientImportRowResultDTO.Status;
+import com.pm.patientservice.dto.PatientRequestDTO;
+import com.pm.patientservice.metrics.StatementCounter;
+import com.pm.patientservice.model.Patient;
+import com.pm.patientservice.repository.OutboxEventRepository;
+import com.pm.patientservice.repository.PatientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "outbox.relay.enabled=false")
+class PatientImportServiceTests {
+
+    @Autowired
+    private PatientImportService importService;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private EmailFilter emailFilter;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private PatientChangeTracker changeTracker;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    // Loaded synchronously, so the filter answers "certainly new" for emails it has not seen
+    @BeforeEach
+    void loadEmailFilter() {
+        emailFilter.load();
+    }
+
+    @Test
+    void importsLargeUploadsInBatchedChunks() {
+        String prefix = "batch-" + System.nanoTime();
+        int rows = PatientImportService.CHUNK_SIZE + 100;
+
+        StatementCounter.begin();
+        PatientImportResultDTO result = importNdjson(IntStream.rangeClosed(1, rows)
+                .mapToObj(i -> row(prefix + "-" + i + "@example.com"))
+                .toArray(String[]::new));
+        int statements = StatementCounter.end();
+
+        assertThat(result.getTotal()).isEqualTo(rows);
+        assertThat(result.getCreated()).isEqualTo(rows);
+        assertThat(result.getRows()).extracting(PatientImportRowResultDTO::getRow)
+                .containsExactlyElementsOf(IntStream.rangeClosed(1, rows).boxed().toList());
+        List<UUID> ids = result.getRows().stream().map(row -> UUID.fromString(row.getId())).toList();
+        assertThat(patientRepository.findAllById(ids)).hasSize(rows);
+        // A handful of statements per chunk, not one or two per row
+        assertThat(statements).isBetween(1, 20);
+    }
+
+    @Test
+    void rejectsEmailsRepeatedInTheUploadOrAlreadyRegistered() {
+        String prefix = "duplicate-" + System.nanoTime();
+        PatientRequestDTO registered = new PatientRequestDTO();
+        registered.setName("Already Registered");
+        registered.setEmail(prefix + "-registered@example.com");
+        registered.setAddress("1 Existing Road");
+        registered.setDateOfBirth("1980-01-01");
+        registered.setRegisteredDate("2024-01-01");
+        patientService.createPatient(registered);
+
+        PatientImportResultDTO result = importNdjson(
+                row(prefix + "-new@example.com"),
+                row(prefix + "-registered@example.com"),
+                row(prefix + "-new@example.com"));
+
+        assertThat(result.getRows()).extracting(PatientImportRowResultDTO::getStatus)
+                .containsExactly(Status.CREATED, Status.DUPLICATE, Status.DUPLICATE);
+        assertThat(result.getRows().get(1).getErrors()).containsKey("email");
+        assertThat(result.getRows().get(2).getId()).isNull();
+    }
+
+    @Test
+    void reimportingOnlyRegisteredEmailsChangesNothing() {
+        String prefix = "reimport-" + System.nanoTime();
+        String[] rows = {row(prefix + "-1@example.com"), row(prefix + "-2@example.com")};
+        importNdjson(rows);
+        long outboxEvents = outboxEventRepository.count();
+        PatientChangeTracker.Snapshot before = changeTracker.current();
+
+        PatientImportResultDTO result = importNdjson(rows);
+
+        assertThat(result.getRows()).extracting(PatientImportRowResultDTO::getStatus)
+                .containsOnly(Status.DUPLICATE);
+        // The collection ETag stays valid, so polling clients keep getting 304s
+        assertThat(changeTracker.current()).isEqualTo(before);
+        assertThat(outboxEventRepository.count()).isEqualTo(outboxEvents);
+    }
+
+    @Test
+    void reportsInvalidRowsAndImportsTheRest() {
+        String prefix = "partial-" + System.nanoTime();
+
+        PatientImportResultDTO result = importNdjson(
+                row(prefix + "-valid@example.com"),
+                row("not-an-email"),
+                """
+                {"name": "Bad Date", "email": "%s-date@example.com", "address": "1 Import Road", \
+                "dateOfBirth": "01/02/1990", "registeredDate": "2024-05-09"}""".formatted(prefix),
+                """
+                {"email": "%s-nameless@example.com", "address": "1 Import Road", \
+                "dateOfBirth": "1990-01-01", "registeredDate": "2024-05-09"}""".formatted(prefix));
+
+        assertThat(result.getTotal()).isEqualTo(4);
+        assertThat(result.getCreated()).isEqualTo(1);
+        assertThat(result.getRejected()).isEqualTo(3);
+        assertThat(result.getRows()).extracting(PatientImportRowResultDTO::getStatus)
+                .containsExactly(Status.CREATED, Status.INVALID, Status.INVALID, Status.INVALID);
+        assertThat(result.getRows().get(1).getErrors()).containsKey("email");
+        assertThat(result.getRows().get(2).getErrors()).containsKey("date");
+        assertThat(result.getRows().get(3).getErrors()).containsKey("name");
+    }
+
+    @Test
+    void importsCsvWithAHeaderRow() {
+        String prefix = "csv-" + System.nanoTime();
+        byte[] body = """
+                name,email,address,dateOfBirth,registeredDate
+                Csv One,%1$s-1@example.com,1 Csv Road,1990-01-01,2024-05-09
+                Csv Two,%1$s-2@example.com,2 Csv Road,1991-02-02,2024-05-09
+                """.formatted(prefix).getBytes(StandardCharsets.UTF_8);
+
+        PatientImportResultDTO result =
+                importService.importPatients(new ByteArrayInputStream(body), PatientImportService.TEXT_CSV);
+
+        assertThat(result.getCreated()).isEqualTo(2);
+        assertThat(patientRepository.findExistingEmails(List.of(prefix + "-1@example.com", prefix + "-2@example.com")))
+                .hasSize(2);
+    }
+
+    @Test
+    void batchFailureFallsBackToSingleInsertsWithTheirIds() {
+        String prefix = "fallback-" + System.nanoTime();
+        // Inserted behind the filter's back, so the chunk skips the lookup and the batch hits the constraint
+        Patient registeredElsewhere = new Patient();
+        registeredElsewhere.setName("Registered Elsewhere");
+        registeredElsewhere.setEmail(prefix + "-taken@example.com");
+        registeredElsewhere.setAddress("1 Other Instance Road");
+        registeredElsewhere.setDateOfBirth(LocalDate.of(1970, 1, 1));
+        registeredElsewhere.setRegisteredDate(LocalDate.of(2024, 1, 1));
+        patientRepository.saveAndFlush(registeredElsewhere);
+
+        PatientImportResultDTO result = importNdjson(
+                row(prefix + "-first@example.com"),
+                row(prefix + "-taken@example.com"),
+                row(prefix + "-last@example.com"));
+
+        assertThat(result.getCreated()).isEqualTo(2);
+        assertThat(result.getRows()).extracting(PatientImportRowResultDTO::getStatus)
+                .containsExactly(Status.CREATED, Status.DUPLICATE, Status.CREATED);
+        for (PatientImportRowResultDTO row : result.getRows()) {
+            if (row.getStatus() == Status.CREATED) {
+                assertThat(patientRepository.findById(UUID.fromString(row.getId()))).isPresent();
+            }
+        }
+    }
+
+    private PatientImportResultDTO importNdjson(String... rows) {
+        byte[] body = String.join("\n", rows).getBytes(StandardCharsets.UTF_8);
+        return importService.importPatients(new ByteArrayInputStream(body), MediaType.APPLICATION_NDJSON);
+    }
+
+    private static String row(String email) {
+        return """
+                {"name": "Import Patient", "email": "%s", "address": "1 Import Road", \
+                "dateOfBirth": "1990-01-01", "registeredDate": "2024-05-09"}""".formatted(email);
+    }
+}
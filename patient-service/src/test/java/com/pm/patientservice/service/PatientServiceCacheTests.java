@@ -0,0 +1,74 @@
+package com.pm.patientservice.service;
+
+import com.pm.patientservice.dto.PatientRequestDTO;
+import com.pm.patientservice.dto.PatientResponseDTO;
+import com.pm.patientservice.exception.PatientNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "outbox.relay.enabled=false")
+class PatientServiceCacheTests {
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private PatientCache patientCache;
+
+    @Test
+    void updatesAreVisibleThroughTheCache() {
+        String email = "cache-update-" + System.nanoTime() + "@example.com";
+        PatientResponseDTO created = patientService.createPatient(request(email, "1 Old Road"));
+        UUID id = UUID.fromString(created.getId());
+
+        patientService.getPatient(id);
+        assertThat(patientCache.contains(id)).isTrue();
+
+        patientService.updatePatient(id, request(email, "2 New Road"), null);
+
+        assertThat(patientCache.contains(id)).isFalse();
+        assertThat(patientService.getPatient(id).getAddress()).isEqualTo("2 New Road");
+    }
+
+    @Test
+    void deletedPatientsAreNotServedFromTheCache() {
+        String email = "cache-delete-" + System.nanoTime() + "@example.com";
+        PatientResponseDTO created = patientService.createPatient(request(email, "1 Gone Road"));
+        UUID id = UUID.fromString(created.getId());
+        patientService.getPatient(id);
+
+        patientService.deletePatient(id);
+
+        assertThat(patientCache.contains(id)).isFalse();
+        assertThatThrownBy(() -> patientService.getPatient(id)).isInstanceOf(PatientNotFoundException.class);
+    }
+
+    @Test
+    void deletingAPatientTwiceReportsItMissingEvenWhileCached() {
+        String email = "cache-redelete-" + System.nanoTime() + "@example.com";
+        PatientResponseDTO created = patientService.createPatient(request(email, "1 Twice Road"));
+        UUID id = UUID.fromString(created.getId());
+        patientService.deletePatient(id);
+        // A lookup racing the delete may have put the patient back into the cache
+        patientCache.get(id, key -> Optional.of(created));
+
+        assertThatThrownBy(() -> patientService.deletePatient(id)).isInstanceOf(PatientNotFoundException.class);
+    }
+
+    private static PatientRequestDTO request(String email, String address) {
+        PatientRequestDTO request = new PatientRequestDTO();
+        request.setName("Cached Patient");
+        request.setEmail(email);
+        request.setAddress(address);
+        request.setDateOfBirth("1970-03-04");
+        request.setRegisteredDate("2024-01-01");
+        return request;
+    }
+}